@@ -0,0 +1,87 @@
+/**
+ * Wire
+ * Copyright (C) 2018 Wire Swiss GmbH
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.waz.zclient.paintcode
+
+import android.graphics.{Bitmap, Canvas, Color, RectF}
+import android.os.SystemClock
+import android.support.test.runner.AndroidJUnit4
+import android.util.Log
+import com.waz.zclient.paintcode.StyleKitView.StyleKitDrawMethod
+import com.waz.zclient.paintcode.WireStyleKit.ResizingBehavior
+import org.junit.Assert._
+import org.junit.runner.RunWith
+import org.junit.{Before, Test}
+
+/**
+  * Compares the per-draw cost of a few icons drawn directly by `WireStyleKit` and through the `StyleKitCache`, and
+  * checks that both render the same pixels. The timings are only logged, they depend too much on the device to be
+  * asserted.
+  */
+@RunWith(classOf[AndroidJUnit4])
+class StyleKitCacheBenchmark {
+  import StyleKitCacheBenchmark._
+
+  private val Icons: Seq[(String, StyleKitDrawMethod)] = Seq(
+    "mentions"  -> WireStyleKit.drawMentions,
+    "videocall" -> WireStyleKit.drawVideocall,
+    "emoji"     -> WireStyleKit.drawEmoji,
+    "guest"     -> WireStyleKit.drawGuestIcon
+  )
+
+  private val rect = new RectF(0, 0, Size, Size)
+
+  @Before
+  def before(): Unit = StyleKitCache.clear()
+
+  @Test
+  def cachedDrawsRenderTheSamePixels(): Unit = Icons.foreach { case (name, method) =>
+    val direct = render(c => method(c, rect, ResizingBehavior.AspectFit, Color.BLACK))
+    val cached = render(c => StyleKitCache.draw(method, method, c, rect, ResizingBehavior.AspectFit, Color.BLACK))
+    assertTrue(s"$name differs when drawn from the cache", direct.sameAs(cached))
+  }
+
+  @Test
+  def compareDrawCost(): Unit = {
+    val canvas = new Canvas(Bitmap.createBitmap(Size, Size, Bitmap.Config.ARGB_8888))
+    Icons.foreach { case (name, method) =>
+      val direct = measure(method(canvas, rect, ResizingBehavior.AspectFit, Color.BLACK))
+      val cached = measure(StyleKitCache.draw(method, method, canvas, rect, ResizingBehavior.AspectFit, Color.BLACK))
+      Log.i(Tag, f"$name%-10s direct: ${direct / 1000.0}%8.2f us/draw, cached: ${cached / 1000.0}%8.2f us/draw")
+    }
+  }
+
+  private def render(draw: Canvas => Unit): Bitmap = {
+    val bitmap = Bitmap.createBitmap(Size, Size, Bitmap.Config.ARGB_8888)
+    draw(new Canvas(bitmap))
+    bitmap
+  }
+
+  // average nanos per draw, after a warm up run
+  private def measure(draw: => Unit): Double = {
+    (0 until Iterations).foreach(_ => draw)
+    val start = SystemClock.elapsedRealtimeNanos()
+    (0 until Iterations).foreach(_ => draw)
+    (SystemClock.elapsedRealtimeNanos() - start).toDouble / Iterations
+  }
+}
+
+object StyleKitCacheBenchmark {
+  val Tag        = "StyleKitCacheBenchmark"
+  val Size       = 96
+  val Iterations = 2000
+}
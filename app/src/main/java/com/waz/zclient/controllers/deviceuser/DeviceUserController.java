@@ -26,6 +26,8 @@ import java.util.regex.Pattern;
 
 public class DeviceUserController implements IDeviceUserController {
 
+    private static final Pattern DIGITS = Pattern.compile("\\d+");
+
     private Context context;
     private String primaryPhoneNumber;
     private String countryCode;
@@ -68,8 +70,7 @@ public class DeviceUserController implements IDeviceUserController {
         if (primaryPhoneNumber == null) {
             return;
         }
-        Pattern p = Pattern.compile("\\d+");
-        Matcher m = p.matcher(primaryPhoneNumber);
+        Matcher m = DIGITS.matcher(primaryPhoneNumber);
         StringBuilder builder = new StringBuilder();
         while (m.find()) {
             builder.append(m.group());
@@ -18,13 +18,18 @@
 package com.waz.zclient.core.api.scala;
 
 import android.support.annotation.NonNull;
+import android.view.Choreographer;
 import com.waz.api.UiObservable;
 import com.waz.api.UpdateListener;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
 
 import static com.waz.zclient.core.api.scala.ModelObserver.Reason.FORCED_UPDATE;
@@ -47,7 +52,28 @@ public abstract class ModelObserver<T extends UiObservable> {
      */
     protected Set<SingleModelObserver> observers;
 
+    private final boolean batched;
+    private final Set<T> pendingUpdates = new LinkedHashSet<>();
+    private boolean dispatchScheduled;
+
+    private final Choreographer.FrameCallback dispatchCallback = new Choreographer.FrameCallback() {
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            dispatchPendingUpdates();
+        }
+    };
+
     public ModelObserver() {
+        this(false);
+    }
+
+    /**
+     * @param batched if true, the updates of all the models which change within a frame are collected and delivered
+     *                together, with a single call to {@link #updated(List)} on the next frame - instead of calling
+     *                {@link #updated(UiObservable)} and {@link #updated(UiObservable, Reason)} for each of them.
+     */
+    public ModelObserver(boolean batched) {
+        this.batched = batched;
         observers = new HashSet<>();
     }
 
@@ -78,7 +104,8 @@ public abstract class ModelObserver<T extends UiObservable> {
      * Note, this method clears any previous {@link SingleModelObserver}s that this {@link ModelObserver} was using,
      * before creating new observers for any models passed in. If we were previously watching models A and B, and then
      * call #setAndUpdate on models B and C, this {@link ModelObserver} will then be listening to B and C, and NOT A.
-     * Furthermore, a call to update on B will NOT be performed, as we were already listening to it.
+     * Furthermore, a call to update on B will NOT be performed, as we were already listening to it, and the observer of
+     * B is kept as it is - if the set of models doesn't change, nothing happens at all.
      * </p>
      * <p>
      * If a particular model in the collection is null, then nothing will happen.
@@ -86,18 +113,13 @@ public abstract class ModelObserver<T extends UiObservable> {
      * @param models
      */
     public void setAndUpdate(Collection<T> models) {
-        pauseListening();
         Set<SingleModelObserver> newModels = createObserverCollection(models);
-        if (!observers.isEmpty() && !observers.retainAll(newModels)) {
-            resumeListening();
-            return;
-        }
-        resumeListening();
+        retainObservers(newModels);
         newModels.removeAll(observers);
+        observers.addAll(newModels);
         for (SingleModelObserver observer : newModels) {
             observer.startListening();
         }
-        observers.addAll(newModels);
     }
 
     /**
@@ -109,16 +131,31 @@ public abstract class ModelObserver<T extends UiObservable> {
     }
 
     public void setAndPause(Collection<T> models) {
-        pauseListening();
         Set<SingleModelObserver> newModels = createObserverCollection(models);
-        if (!observers.isEmpty() && !observers.retainAll(newModels)) {
-            resumeListening();
-            return;
-        }
-        resumeListening();
+        retainObservers(newModels);
         observers.addAll(newModels);
     }
 
+    /**
+     * Stops and drops the observers of the models which aren't in the given set, and makes sure the others are
+     * listening. The observers of the retained models are not touched if they're listening already.
+     */
+    private void retainObservers(Set<SingleModelObserver> newModels) {
+        Iterator<SingleModelObserver> it = observers.iterator();
+        while (it.hasNext()) {
+            SingleModelObserver observer = it.next();
+            if (newModels.contains(observer)) {
+                if (!observer.listening) {
+                    observer.resumeListening();
+                }
+            } else {
+                observer.pauseListening();
+                pendingUpdates.remove(observer.model);
+                it.remove();
+            }
+        }
+    }
+
     /**
      * Create a set of SingleModelObservers for a collection of Models, but don't yet update them
      */
@@ -214,6 +251,7 @@ public abstract class ModelObserver<T extends UiObservable> {
         for (SingleModelObserver observer : observers) {
             observer.pauseListening();
         }
+        pendingUpdates.clear();
     }
 
     /**
@@ -228,7 +266,8 @@ public abstract class ModelObserver<T extends UiObservable> {
 
     /**
      * Cause all observed models to have their observers updated.
-     * This will result in a call to {@link #updated(UiObservable)} for every model this ModelObserver is watching.
+     * This will result in a call to {@link #updated(UiObservable)} for every model this ModelObserver is watching, or
+     * in a single call to {@link #updated(List)} with all of them when batched.
      */
     public void forceUpdate() {
         for (SingleModelObserver observer : observers) {
@@ -252,6 +291,38 @@ public abstract class ModelObserver<T extends UiObservable> {
     public void updated(T model, Reason reason) {
     }
 
+    /**
+     * The update method of a batched observer, called at most once per frame.
+     * @param models the models which have been updated since the last call, in the order of their first update
+     */
+    public void updated(List<T> models) {
+    }
+
+    /**
+     * Protected for testing purposes
+     */
+    protected void postFrameCallback(Choreographer.FrameCallback callback) {
+        Choreographer.getInstance().postFrameCallback(callback);
+    }
+
+    private void onModelUpdated(T model) {
+        pendingUpdates.add(model);
+        if (!dispatchScheduled) {
+            dispatchScheduled = true;
+            postFrameCallback(dispatchCallback);
+        }
+    }
+
+    private void dispatchPendingUpdates() {
+        dispatchScheduled = false;
+        if (pendingUpdates.isEmpty()) {
+            return;
+        }
+        List<T> models = new ArrayList<>(pendingUpdates);
+        pendingUpdates.clear();
+        updated(models);
+    }
+
     /**
      * Protected for testing purposes
      */
@@ -285,8 +356,12 @@ public abstract class ModelObserver<T extends UiObservable> {
         }
 
         public void updated(Reason reason) {
-            ModelObserver.this.updated(model);
-            ModelObserver.this.updated(model, reason);
+            if (batched) {
+                onModelUpdated(model);
+            } else {
+                ModelObserver.this.updated(model);
+                ModelObserver.this.updated(model, reason);
+            }
         }
 
         /**
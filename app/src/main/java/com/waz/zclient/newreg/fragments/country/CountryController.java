@@ -21,46 +21,33 @@ import android.content.Context;
 import android.os.Build;
 import android.telephony.TelephonyManager;
 import android.text.TextUtils;
-import com.google.i18n.phonenumbers.PhoneNumberUtil;
 import com.waz.zclient.BuildConfig;
 import com.waz.zclient.R;
 
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 
 public class CountryController {
     public static final String TAG = CountryController.class.getName();
+    private static final String QA_SHORTCUT_CODE = "0";
 
-    public Map<String, Country> codeToCountryMap = new HashMap<>();
-    public Map<String, Country> abbreviationToCountryMap = new HashMap<>();
+    public Map<String, Country> codeToCountryMap;
+    public Map<String, Country> abbreviationToCountryMap;
 
+    private final CountryTable table;
     private Country country;
 
     public CountryController(Context context) {
-        populateCountries(context);
-        String deviceCountry = getDeviceCountry(context);
-        String defaultCountry = context.getResources().getString(R.string.new_reg__default_country);
-
-        ArrayList<Country> countries = new ArrayList<>(abbreviationToCountryMap.values());
-
-        for (Country country1 : countries) {
-            if (country1.getAbbreviation().equalsIgnoreCase(deviceCountry)) {
-                country = country1;
-            }
-        }
+        table = CountryTable.get(context, getDeviceLanguage(context));
+        codeToCountryMap = table.codeToCountry;
+        abbreviationToCountryMap = table.abbreviationToCountry;
 
+        country = table.getByAbbreviation(getDeviceCountry(context));
         if (country == null) {
-            for (Country country1 : countries) {
-                if (country1.getAbbreviation().equalsIgnoreCase(defaultCountry)) {
-                    country = country1;
-                }
-            }
+            country = table.getByAbbreviation(context.getResources().getString(R.string.new_reg__default_country));
         }
     }
 
@@ -80,95 +67,65 @@ public class CountryController {
     }
 
     public String getCodeForAbbreviation(String abbreviation) {
-        Country country = null;
-        ArrayList<Country> countries = new ArrayList<>(abbreviationToCountryMap.values());
-        for (Country country1 : countries) {
-            if (country1.getAbbreviation().equalsIgnoreCase(abbreviation)) {
-                country = country1;
-                break;
-            }
-        }
+        Country country = table.getByAbbreviation(abbreviation);
         if (country == null) {
             return null;
         }
         return country.getCountryCode();
     }
 
-    @SuppressWarnings("PMD.AvoidInstantiatingObjectsInLoops")
-    private void populateCountries(Context context) {
-        List<Country> countries = new ArrayList<>();
-        String deviceLanguage;
+    private static String getDeviceLanguage(Context context) {
         if (Build.VERSION.SDK_INT < Build.VERSION_CODES.N) {
             //noinspection deprecation
-            deviceLanguage = context.getResources().getConfiguration().locale.getLanguage();
+            return context.getResources().getConfiguration().locale.getLanguage();
         } else {
-            deviceLanguage = context.getResources().getConfiguration().getLocales().get(0).getLanguage();
-        }
-        PhoneNumberUtil phoneNumberUtil = PhoneNumberUtil.getInstance();
-
-        for (String region : phoneNumberUtil.getSupportedRegions()) {
-            Locale locale = new Locale(deviceLanguage, region);
-            Country country = new Country();
-            country.setAbbreviation(locale.getCountry());
-            country.setCountryCode(Integer.toString(phoneNumberUtil.getCountryCodeForRegion(region)));
-            country.setName(locale.getDisplayCountry());
-            countries.add(country);
-        }
-
-        for (Country country : countries) {
-            codeToCountryMap.put(country.getCountryCode(), country);
-            abbreviationToCountryMap.put(country.getAbbreviation(), country);
+            return context.getResources().getConfiguration().getLocales().get(0).getLanguage();
         }
     }
 
     public List<Country> getSortedCountries() {
-        ArrayList<Country> countries = new ArrayList<>(abbreviationToCountryMap.values());
-        Collections.sort(countries);
+        ArrayList<Country> countries = new ArrayList<>(table.sortedCountries);
         if (BuildConfig.DEVELOPER_FEATURES_ENABLED) {
-            Country qaShortcut = new Country();
-            qaShortcut.setAbbreviation("QA-code");
-            qaShortcut.setName("QA-Shortcut");
-            qaShortcut.setCountryCode("0");
-            countries.add(0, qaShortcut);
+            countries.add(0, qaShortcut());
         }
         return countries;
     }
 
+    private static Country qaShortcut() {
+        Country qaShortcut = new Country();
+        qaShortcut.setAbbreviation("QA-code");
+        qaShortcut.setName("QA-Shortcut");
+        qaShortcut.setCountryCode(QA_SHORTCUT_CODE);
+        return qaShortcut;
+    }
+
     public String getPhoneNumberWithoutCountryCode(String phoneNumber) {
-        return getPhoneNumberWithoutCountryCode(phoneNumber, getSortedCountries());
+        return stripCountryCode(phoneNumber, table.codes, BuildConfig.DEVELOPER_FEATURES_ENABLED);
     }
 
-    public static String getPhoneNumberWithoutCountryCode(String phoneNumber, List<Country> countries) {
+    /**
+     * @param qaShortcut whether the QA shortcut code is accepted as a calling code, if no other one matches
+     */
+    static String stripCountryCode(String phoneNumber, CountryTable.CodeTrie codes, boolean qaShortcut) {
         if (TextUtils.isEmpty(phoneNumber)) {
             return "";
         }
 
-        final Set<String> countryCode = new HashSet<>();
-        for (Country c : countries) {
-            countryCode.add(c.getCountryCode());
-        }
-
-        if (phoneNumber.charAt(0) == '+') {
-            if (phoneNumber.length() > 1) {
-                phoneNumber = phoneNumber.substring(1);
-            } else {
-                return "";
-            }
-        }
-
+        String number = stripPlus(phoneNumber);
         // All country codes are ISO3 so max length is 3 ==> <4
-        if (phoneNumber.length() < 4) {
-            return phoneNumber;
+        if (number.length() < 4) {
+            return number;
         }
 
-        for (int i = 3; i >= 0; i--) {
-            final String code = phoneNumber.substring(0, i + 1);
-            if (countryCode.contains(code)) {
-                return phoneNumber.substring(i + 1);
-            }
+        int codeLength = codes.longestPrefix(number.substring(0, 4));
+        if (codeLength == 0 && qaShortcut && number.startsWith(QA_SHORTCUT_CODE)) {
+            codeLength = QA_SHORTCUT_CODE.length();
         }
+        return number.substring(codeLength);
+    }
 
-        return phoneNumber;
+    private static String stripPlus(String phoneNumber) {
+        return phoneNumber.charAt(0) == '+' ? phoneNumber.substring(1) : phoneNumber;
     }
 
     public static String getDeviceCountry(Context context) {
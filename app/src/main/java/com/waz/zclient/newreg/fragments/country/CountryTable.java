@@ -0,0 +1,238 @@
+/**
+ * Wire
+ * Copyright (C) 2018 Wire Swiss GmbH
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.waz.zclient.newreg.fragments.country;
+
+import android.content.Context;
+import com.google.i18n.phonenumbers.PhoneNumberUtil;
+import com.waz.zclient.BuildConfig;
+import timber.log.Timber;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The localized list of countries with their calling codes, indexed for lookups by abbreviation and by calling code.
+ * Building it means resolving a display name for every region known to {@link PhoneNumberUtil}, so a table is built
+ * once per language and kept in memory and in the cache dir. Switching the device language invalidates both.
+ */
+final class CountryTable {
+
+    private static final String CACHE_FILE_PREFIX = "countries_";
+    private static final String SEPARATOR = "\t";
+
+    private static CountryTable current;
+
+    final String language;
+    final List<Country> sortedCountries;
+    final Map<String, Country> codeToCountry = new HashMap<>();
+    final Map<String, Country> abbreviationToCountry = new HashMap<>();
+    final CodeTrie codes;
+
+    private CountryTable(String language, List<Country> countries) {
+        this.language = language;
+        for (Country country : countries) {
+            codeToCountry.put(country.getCountryCode(), country);
+            abbreviationToCountry.put(country.getAbbreviation().toUpperCase(Locale.US), country);
+        }
+        sortedCountries = new ArrayList<>(countries);
+        Collections.sort(sortedCountries);
+        codes = new CodeTrie(codeToCountry.keySet());
+    }
+
+    static synchronized CountryTable get(Context context, String language) {
+        if (current == null || !current.language.equals(language)) {
+            List<Country> countries = readCache(context, language);
+            if (countries == null) {
+                countries = buildCountries(language);
+                writeCache(context, language, countries);
+            }
+            current = new CountryTable(language, countries);
+        }
+        return current;
+    }
+
+    Country getByAbbreviation(String abbreviation) {
+        return abbreviation == null ? null : abbreviationToCountry.get(abbreviation.toUpperCase(Locale.US));
+    }
+
+    @SuppressWarnings("PMD.AvoidInstantiatingObjectsInLoops")
+    private static List<Country> buildCountries(String language) {
+        List<Country> countries = new ArrayList<>();
+        PhoneNumberUtil phoneNumberUtil = PhoneNumberUtil.getInstance();
+        for (String region : phoneNumberUtil.getSupportedRegions()) {
+            Locale locale = new Locale(language, region);
+            countries.add(country(locale.getCountry(),
+                                  Integer.toString(phoneNumberUtil.getCountryCodeForRegion(region)),
+                                  locale.getDisplayCountry()));
+        }
+        return countries;
+    }
+
+    private static Country country(String abbreviation, String code, String name) {
+        Country country = new Country();
+        country.setAbbreviation(abbreviation);
+        country.setCountryCode(code);
+        country.setName(name);
+        return country;
+    }
+
+    /**
+     * The cache file is named after the language and the app version, so that a language switch or an update of the
+     * phone number metadata results in a different file. Stale files are removed whenever a new one is written.
+     */
+    private static File cacheFile(Context context, String language) {
+        return new File(context.getCacheDir(), CACHE_FILE_PREFIX + language + "_" + BuildConfig.VERSION_CODE);
+    }
+
+    @SuppressWarnings("PMD.AvoidInstantiatingObjectsInLoops")
+    private static List<Country> readCache(Context context, String language) {
+        File file = cacheFile(context, language);
+        if (!file.exists()) {
+            return null;
+        }
+        List<Country> countries = new ArrayList<>();
+        BufferedReader reader = null;
+        try {
+            reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), "UTF-8"));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.split(SEPARATOR, 3);
+                if (fields.length != 3) {
+                    return null;
+                }
+                countries.add(country(fields[0], fields[1], fields[2]));
+            }
+        } catch (IOException e) {
+            Timber.w(e, "Failed to read countries cache");
+            return null;
+        } finally {
+            closeQuietly(reader);
+        }
+        return countries.isEmpty() ? null : countries;
+    }
+
+    private static void writeCache(Context context, String language, Collection<Country> countries) {
+        File file = cacheFile(context, language);
+        File[] stale = context.getCacheDir().listFiles();
+        if (stale != null) {
+            for (File f : stale) {
+                if (f.getName().startsWith(CACHE_FILE_PREFIX) && !f.equals(file)) {
+                    //noinspection ResultOfMethodCallIgnored
+                    f.delete();
+                }
+            }
+        }
+        // written to a temporary file first, so that an interrupted write never leaves an incomplete table behind
+        File tmp = new File(file.getPath() + ".tmp");
+        BufferedWriter writer = null;
+        boolean written = false;
+        try {
+            writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(tmp), "UTF-8"));
+            for (Country country : countries) {
+                writer.write(country.getAbbreviation() + SEPARATOR + country.getCountryCode() + SEPARATOR + country.getName());
+                writer.newLine();
+            }
+            writer.flush();
+            written = true;
+        } catch (IOException e) {
+            Timber.w(e, "Failed to write countries cache");
+        } finally {
+            closeQuietly(writer);
+        }
+        if (!written || !tmp.renameTo(file)) {
+            //noinspection ResultOfMethodCallIgnored
+            tmp.delete();
+        }
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        if (closeable == null) {
+            return;
+        }
+        try {
+            closeable.close();
+        } catch (IOException e) {
+            Timber.w(e, "Failed to close countries cache");
+        }
+    }
+
+    /**
+     * Prefix tree over the digits of the calling codes, used to split the calling code off a phone number.
+     */
+    static final class CodeTrie {
+        private final CodeTrie[] children = new CodeTrie[10];
+        private boolean terminal;
+
+        CodeTrie(Collection<String> codes) {
+            for (String code : codes) {
+                add(code);
+            }
+        }
+
+        private CodeTrie() {
+        }
+
+        private void add(String code) {
+            CodeTrie node = this;
+            for (int i = 0; i < code.length(); i++) {
+                int digit = code.charAt(i) - '0';
+                if (digit < 0 || digit > 9) {
+                    return;
+                }
+                if (node.children[digit] == null) {
+                    node.children[digit] = new CodeTrie();
+                }
+                node = node.children[digit];
+            }
+            node.terminal = true;
+        }
+
+        /**
+         * @return the length of the longest calling code the given number (without the leading '+') starts with, or 0
+         */
+        int longestPrefix(String number) {
+            int longest = 0;
+            CodeTrie node = this;
+            for (int i = 0; i < number.length(); i++) {
+                int digit = number.charAt(i) - '0';
+                if (digit < 0 || digit > 9 || node.children[digit] == null) {
+                    break;
+                }
+                node = node.children[digit];
+                if (node.terminal) {
+                    longest = i + 1;
+                }
+            }
+            return longest;
+        }
+    }
+}
@@ -19,7 +19,6 @@ package com.waz.zclient.pages.main.conversationlist.views.row;
 
 import android.content.Context;
 import android.graphics.Canvas;
-import android.graphics.Rect;
 import android.util.AttributeSet;
 import android.view.LayoutInflater;
 import android.view.View;
@@ -109,7 +108,7 @@ public class MenuIndicatorView extends FrameLayout {
      */
     @Override
     protected void dispatchDraw(Canvas canvas) {
-        canvas.clipRect(new Rect(0, 0, clipX, canvas.getHeight()));
+        canvas.clipRect(0, 0, clipX, canvas.getHeight());
         super.dispatchDraw(canvas);
     }
 }
@@ -42,6 +42,7 @@ public class UserTokenSpan extends SpannableEditText.TokenSpan {
     private Rect textBounds;
     private float textWidth;
     private Rect deleteIconBounds;
+    private final RectF backgroundRect = new RectF();
 
     private int paddingHorizontal;
     private int paddingRightFix;
@@ -133,12 +134,11 @@ public class UserTokenSpan extends SpannableEditText.TokenSpan {
             availableTextSpace(),
             TextUtils.TruncateAt.END);
 
-        canvas.drawRoundRect(
-            new RectF(textPosX - paddingHorizontal,
-                textPosY - backgroundHeight,
-                textPosX + textBounds.width() + paddingHorizontal,
-                textPosY + backgroundBottomPadding),
-            backgroundRadius, backgroundRadius, backgroundPaint);
+        backgroundRect.set(textPosX - paddingHorizontal,
+            textPosY - backgroundHeight,
+            textPosX + textBounds.width() + paddingHorizontal,
+            textPosY + backgroundBottomPadding);
+        canvas.drawRoundRect(backgroundRect, backgroundRadius, backgroundRadius, backgroundPaint);
 
         if (deleteMode) {
             canvas.drawText(truncatedText.toString(), textPosX, textPosY, deleteModeTextPaint);
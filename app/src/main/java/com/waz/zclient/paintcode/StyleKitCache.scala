@@ -0,0 +1,75 @@
+/**
+ * Wire
+ * Copyright (C) 2018 Wire Swiss GmbH
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.waz.zclient.paintcode
+
+import android.graphics._
+import android.util.LruCache
+import com.waz.zclient.paintcode.StyleKitView.StyleKitDrawMethod
+import com.waz.zclient.paintcode.WireStyleKit.ResizingBehavior
+
+/**
+  * Renders the `WireStyleKit` icons through a cache of bitmaps keyed by icon, size, resizing behaviour and color.
+  *
+  * The generated draw methods rebuild the icon paths on each call, and share static paths and paints between threads.
+  * Here an icon is rendered once per key (under a lock, so the cached draws never run the generated code concurrently),
+  * and every following draw is a single bitmap blit. Icons larger than `MaxCachedPixels` are drawn directly.
+  *
+  * The `icon` of the key has to identify what the draw method draws - usually the draw method itself, compared by
+  * reference. Referring to a `WireStyleKit` method creates a new function, and so a new key, each time - that's why
+  * the views and drawables go through `drawIcon`, which only caches the shared `WireDrawable.Icons`.
+  */
+object StyleKitCache {
+
+  val CacheSizeBytes  = 4 * 1024 * 1024
+  val MaxCachedPixels = 512 * 512
+
+  case class Key(icon: AnyRef, width: Int, height: Int, resizing: ResizingBehavior, color: Int)
+
+  private val bitmaps = new LruCache[Key, Bitmap](CacheSizeBytes) {
+    override def sizeOf(key: Key, value: Bitmap): Int = value.getByteCount
+  }
+
+  private val bitmapPaint = new Paint(Paint.FILTER_BITMAP_FLAG)
+
+  def draw(icon: AnyRef, method: StyleKitDrawMethod, canvas: Canvas, rect: RectF, resizing: ResizingBehavior, color: Int): Unit = {
+    val width  = math.ceil(rect.width).toInt
+    val height = math.ceil(rect.height).toInt
+
+    if (width > 0 && height > 0) {
+      if (width * height > MaxCachedPixels) synchronized(method(canvas, rect, resizing, color))
+      else canvas.drawBitmap(bitmap(Key(icon, width, height, resizing, color), method, rect), rect.left, rect.top, bitmapPaint)
+    }
+  }
+
+  /**
+    * Draws one of the shared `WireDrawable.Icons` through the cache, and any other method directly.
+    */
+  def drawIcon(method: StyleKitDrawMethod, canvas: Canvas, rect: RectF, resizing: ResizingBehavior, color: Int): Unit =
+    if (WireDrawable.Icons.isShared(method)) draw(method, method, canvas, rect, resizing, color)
+    else synchronized(method(canvas, rect, resizing, color))
+
+  def clear(): Unit = bitmaps.evictAll()
+
+  private def bitmap(key: Key, method: StyleKitDrawMethod, rect: RectF): Bitmap =
+    Option(bitmaps.get(key)).getOrElse {
+      val bitmap = Bitmap.createBitmap(key.width, key.height, Bitmap.Config.ARGB_8888)
+      synchronized(method(new Canvas(bitmap), new RectF(0, 0, rect.width, rect.height), key.resizing, key.color))
+      bitmaps.put(key, bitmap)
+      bitmap
+    }
+}
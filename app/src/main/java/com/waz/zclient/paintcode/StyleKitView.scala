@@ -45,8 +45,11 @@ class RestoreIconView(context: Context, attrs: AttributeSet, defStyleAttr: Int)
 
   setLayerType(View.LAYER_TYPE_SOFTWARE, null)
 
+  private val rect = new RectF()
+
   override def onDraw(canvas: Canvas): Unit = {
-    WireStyleKit.drawRestore(canvas, new RectF(getPaddingLeft, getPaddingTop, getWidth - getPaddingRight, getHeight - getPaddingBottom), WireStyleKit.ResizingBehavior.AspectFit, color)
+    rect.set(getPaddingLeft, getPaddingTop, getWidth - getPaddingRight, getHeight - getPaddingBottom)
+    StyleKitCache.drawIcon(WireDrawable.Icons.Restore, canvas, rect, WireStyleKit.ResizingBehavior.AspectFit, color)
   }
 
   def setColor(color: Int): Unit = {
@@ -67,6 +70,7 @@ class GenericStyleKitView(context: Context, attrs: AttributeSet, defStyleAttr: I
 
   setLayerType(View.LAYER_TYPE_SOFTWARE, null)
 
+  // cached only if it's one of the `WireDrawable.Icons` (see `StyleKitCache.drawIcon`)
   var onDrawMethod: Option[StyleKitDrawMethod] = None
 
   def setOnDraw(fun:StyleKitDrawMethod): Unit = {
@@ -74,9 +78,12 @@ class GenericStyleKitView(context: Context, attrs: AttributeSet, defStyleAttr: I
     invalidate()
   }
 
-  override def onDraw(canvas: Canvas): Unit = {
+  private val rect = new RectF()
+
+  override def onDraw(canvas: Canvas): Unit = onDrawMethod.foreach { method =>
     val stateColor = colorStateList.map(_.getColorForState(getDrawableState, color)).getOrElse(color)
-    onDrawMethod.foreach(_(canvas, new RectF(getPaddingLeft, getPaddingTop, getWidth - getPaddingRight, getHeight - getPaddingBottom), WireStyleKit.ResizingBehavior.AspectFit, stateColor))
+    rect.set(getPaddingLeft, getPaddingTop, getWidth - getPaddingRight, getHeight - getPaddingBottom)
+    StyleKitCache.drawIcon(method, canvas, rect, WireStyleKit.ResizingBehavior.AspectFit, stateColor)
   }
 
   def setColor(color: Int): Unit = {
@@ -23,9 +23,70 @@ import android.graphics._
 import com.waz.model.EphemeralDuration.TimeUnit
 import com.waz.utils.returning
 import com.waz.zclient.utils.ContextUtils._
+import com.waz.zclient.paintcode.StyleKitView.StyleKitDrawMethod
+import com.waz.zclient.paintcode.WireDrawable.Icons
 import com.waz.zclient.paintcode.WireStyleKit._
 import com.waz.zclient.utils.ResColor
 
+import scala.collection.mutable
+
+object WireDrawable {
+
+  /**
+    * The shared icons, evaluated once so that each is the same function - i.e. the same cache key - every time it's
+    * drawn. Only these are drawn through the `StyleKitCache`, see `StyleKitCache.drawIcon`.
+    */
+  object Icons {
+    private val shared = mutable.Set.empty[StyleKitDrawMethod]
+
+    private def icon(method: StyleKitDrawMethod): StyleKitDrawMethod = returning(method)(shared += _)
+
+    def isShared(method: StyleKitDrawMethod): Boolean = shared.contains(method)
+
+    val DownArrow      : StyleKitDrawMethod = icon(drawDownArrow)
+    val ServiceIcon    : StyleKitDrawMethod = icon(drawServiceIcon)
+    val GroupIcon      : StyleKitDrawMethod = icon(drawGroupIcon)
+    val GuestIcon      : StyleKitDrawMethod = icon(drawGuestIcon)
+    val View           : StyleKitDrawMethod = icon(drawView)
+    val NavigationArrow: StyleKitDrawMethod = icon(drawNavigationArrow)
+    val Dropdown       : StyleKitDrawMethod = icon(drawDropdown)
+    val Restore        : StyleKitDrawMethod = icon(drawRestore)
+    val Camera         : StyleKitDrawMethod = icon(drawCamera)
+    val Conversation   : StyleKitDrawMethod = icon(drawConversation)
+    val Alerts         : StyleKitDrawMethod = icon(drawAlerts)
+    val Second         : StyleKitDrawMethod = icon(drawSecond)
+    val Minute         : StyleKitDrawMethod = icon(drawMinute)
+    val Hour           : StyleKitDrawMethod = icon(drawHour)
+    val Day            : StyleKitDrawMethod = icon(drawDay)
+    val Week           : StyleKitDrawMethod = icon(drawWeek)
+    val Year           : StyleKitDrawMethod = icon(drawYear)
+    val TimedMessages  : StyleKitDrawMethod = icon(drawTimedMessages)
+    val Edit           : StyleKitDrawMethod = icon(drawEdit)
+    val Like           : StyleKitDrawMethod = icon(drawLike)
+    val Reply          : StyleKitDrawMethod = icon(drawReply)
+    val Mentions       : StyleKitDrawMethod = icon(drawMentions)
+    val Location       : StyleKitDrawMethod = icon(drawLocation)
+    val File           : StyleKitDrawMethod = icon(drawFile)
+    val Image          : StyleKitDrawMethod = icon(drawImage)
+    val VoiceMemo      : StyleKitDrawMethod = icon(drawVoiceMemo)
+    val Videocall      : StyleKitDrawMethod = icon(drawVideocall)
+    val VideoMessage   : StyleKitDrawMethod = icon(drawVideoMessage)
+    val Sketch         : StyleKitDrawMethod = icon(drawSketch)
+    val Ping           : StyleKitDrawMethod = icon(drawPing)
+    val Emoji          : StyleKitDrawMethod = icon(drawEmoji)
+    val Text           : StyleKitDrawMethod = icon(drawText)
+    val Attachement    : StyleKitDrawMethod = icon(drawAttachement)
+    val GIF            : StyleKitDrawMethod = icon(drawGIF)
+    val More           : StyleKitDrawMethod = icon(drawMore)
+    val Send           : StyleKitDrawMethod = icon(drawSend)
+    val Mute           : StyleKitDrawMethod = icon(drawMute)
+    val Flip           : StyleKitDrawMethod = icon(drawFlip)
+    val Speaker        : StyleKitDrawMethod = icon(drawSpeaker)
+    val HangUpCall     : StyleKitDrawMethod = icon(drawHangUpCall)
+    val AcceptCall     : StyleKitDrawMethod = icon(drawAcceptCall)
+  }
+}
+
 trait WireDrawable extends Drawable {
 
   protected val paint = new Paint()
@@ -42,6 +103,12 @@ trait WireDrawable extends Drawable {
     invalidateSelf()
   }
 
+  /**
+    * Draws the icon in the color of the paint - through the `StyleKitCache` if it's one of the `WireDrawable.Icons`.
+    */
+  protected def drawIcon(canvas: Canvas, method: StyleKitDrawMethod, rect: RectF): Unit =
+    StyleKitCache.drawIcon(method, canvas, rect, ResizingBehavior.AspectFit, paint.getColor)
+
   protected def getDrawingRect = new RectF(getBounds.left + padding.left, getBounds.top + padding.top, getBounds.right - padding.right, getBounds.bottom - padding.bottom)
 
   def setPadding(rect: Rect): Unit = {
@@ -57,7 +124,7 @@ trait WireDrawable extends Drawable {
 
 case class DownArrowDrawable() extends WireDrawable {
   override def draw(canvas: Canvas): Unit =
-    drawDownArrow(canvas, new RectF(canvas.getClipBounds), ResizingBehavior.AspectFit, paint.getColor)
+    drawIcon(canvas, Icons.DownArrow, new RectF(canvas.getClipBounds))
 }
 
 case class ServicePlaceholderDrawable(cornerRadius: Float = 0, backgroundColor: Int = Color.WHITE) extends WireDrawable {
@@ -91,7 +158,7 @@ case class ServicePlaceholderDrawable(cornerRadius: Float = 0, backgroundColor:
 
     canvas.drawRoundRect(bgRect, cornerRadius, cornerRadius, bgPaint)
     canvas.drawRoundRect(strokeRect, cornerRadius, cornerRadius, strokePaint)
-    drawServiceIcon(canvas, rectInner, ResizingBehavior.AspectFit, paint.getColor)
+    drawIcon(canvas, Icons.ServiceIcon, rectInner)
   }
 
   override def setAlpha(alpha: Int): Unit = {
@@ -107,57 +174,57 @@ object ServicePlaceholderDrawable {
 
 case class CreateGroupIcon(colorRes: Int)(implicit context: Context) extends WireDrawable {
   setColor(getColor(colorRes))
-  override def draw(canvas: Canvas) = drawGroupIcon(canvas, getDrawingRect, ResizingBehavior.AspectFit, paint.getColor)
+  override def draw(canvas: Canvas) = drawIcon(canvas, Icons.GroupIcon, getDrawingRect)
 }
 
 case class ManageServicesIcon(color: ResColor)(implicit context: Context) extends WireDrawable {
   setColor(color.resolve)
-  override def draw(canvas: Canvas) = drawServiceIcon(canvas, getDrawingRect, ResizingBehavior.AspectFit, paint.getColor)
+  override def draw(canvas: Canvas) = drawIcon(canvas, Icons.ServiceIcon, getDrawingRect)
 }
 
 case class GuestIcon(colorRes: Int)(implicit context: Context) extends WireDrawable {
   setColor(getColor(colorRes))
-  override def draw(canvas: Canvas) = drawGuestIcon(canvas, getDrawingRect, ResizingBehavior.AspectFit, paint.getColor)
+  override def draw(canvas: Canvas) = drawIcon(canvas, Icons.GuestIcon, getDrawingRect)
 }
 
 case class GuestIconWithColor(color: Int)(implicit context: Context) extends WireDrawable {
   setColor(color)
-  override def draw(canvas: Canvas) = drawGuestIcon(canvas, new RectF(canvas.getClipBounds), ResizingBehavior.AspectFit, paint.getColor)
+  override def draw(canvas: Canvas) = drawIcon(canvas, Icons.GuestIcon, new RectF(canvas.getClipBounds))
 }
 
 case class ViewWithColor(color: Int)(implicit context: Context) extends WireDrawable {
   setColor(color)
-  override def draw(canvas: Canvas) = drawView(canvas, new RectF(canvas.getClipBounds), ResizingBehavior.AspectFit, paint.getColor)
+  override def draw(canvas: Canvas) = drawIcon(canvas, Icons.View, new RectF(canvas.getClipBounds))
 }
 
 case class ForwardNavigationIcon(colorRes: Int)(implicit context: Context) extends WireDrawable {
   setColor(getColor(colorRes))
-  override def draw(canvas: Canvas) = drawNavigationArrow(canvas, new RectF(canvas.getClipBounds), ResizingBehavior.AspectFit, paint.getColor)
+  override def draw(canvas: Canvas) = drawIcon(canvas, Icons.NavigationArrow, new RectF(canvas.getClipBounds))
 }
 
 case class DropdownIcon(colorRes: Int)(implicit context: Context) extends WireDrawable {
   setColor(getColor(colorRes))
-  override def draw(canvas: Canvas) = drawDropdown(canvas, new RectF(canvas.getClipBounds), ResizingBehavior.AspectFit, paint.getColor)
+  override def draw(canvas: Canvas) = drawIcon(canvas, Icons.Dropdown, new RectF(canvas.getClipBounds))
 }
 
 case class BackupRestoreIcon(color: Int)(implicit context: Context) extends WireDrawable {
   setColor(color)
-  override def draw(canvas: Canvas) = drawRestore(canvas, new RectF(canvas.getClipBounds), ResizingBehavior.AspectFit, paint.getColor)
+  override def draw(canvas: Canvas) = drawIcon(canvas, Icons.Restore, new RectF(canvas.getClipBounds))
 }
 
 case class VideoIcon(colorRes: Int)(implicit context: Context) extends WireDrawable {
   setColor(getColor(colorRes))
-  override def draw(canvas: Canvas) = drawCamera(canvas, getDrawingRect, ResizingBehavior.AspectFit, paint.getColor)
+  override def draw(canvas: Canvas) = drawIcon(canvas, Icons.Camera, getDrawingRect)
 }
 
 case class ConversationIcon(colorRes: Int)(implicit context: Context) extends WireDrawable {
   setColor(getColor(colorRes))
-  override def draw(canvas: Canvas) = drawConversation(canvas, getDrawingRect, ResizingBehavior.AspectFit, paint.getColor)
+  override def draw(canvas: Canvas) = drawIcon(canvas, Icons.Conversation, getDrawingRect)
 }
 
 case class NotificationsIcon(color: Int)(implicit context: Context) extends WireDrawable {
   setColor(color)
-  override def draw(canvas: Canvas) = drawAlerts(canvas, getDrawingRect, ResizingBehavior.AspectFit, paint.getColor)
+  override def draw(canvas: Canvas) = drawIcon(canvas, Icons.Alerts, getDrawingRect)
 }
 
 case class EphemeralIcon(color: Int, timeUnit: TimeUnit)(implicit context: Context) extends WireDrawable {
@@ -165,17 +232,17 @@ case class EphemeralIcon(color: Int, timeUnit: TimeUnit)(implicit context: Conte
   import com.waz.model.EphemeralDuration._
   override def draw(canvas: Canvas) = {
     timeUnit match {
-      case Second => drawSecond(canvas, getDrawingRect, ResizingBehavior.AspectFit, paint.getColor)
-      case Minute => drawMinute(canvas, getDrawingRect, ResizingBehavior.AspectFit, paint.getColor)
-      case Hour   => drawHour(canvas, getDrawingRect, ResizingBehavior.AspectFit, paint.getColor)
-      case Day    => drawDay(canvas, getDrawingRect, ResizingBehavior.AspectFit, paint.getColor)
-      case Week   => drawWeek(canvas, getDrawingRect, ResizingBehavior.AspectFit, paint.getColor)
-      case Year   => drawYear(canvas, getDrawingRect, ResizingBehavior.AspectFit, paint.getColor)
+      case Second => drawIcon(canvas, Icons.Second, getDrawingRect)
+      case Minute => drawIcon(canvas, Icons.Minute, getDrawingRect)
+      case Hour   => drawIcon(canvas, Icons.Hour, getDrawingRect)
+      case Day    => drawIcon(canvas, Icons.Day, getDrawingRect)
+      case Week   => drawIcon(canvas, Icons.Week, getDrawingRect)
+      case Year   => drawIcon(canvas, Icons.Year, getDrawingRect)
     }
   }
 }
 
 case class HourGlassIcon(color: Int)(implicit context: Context) extends WireDrawable {
   setColor(color)
-  override def draw(canvas: Canvas) = drawTimedMessages(canvas, getDrawingRect, ResizingBehavior.AspectFit, paint.getColor)
+  override def draw(canvas: Canvas) = drawIcon(canvas, Icons.TimedMessages, getDrawingRect)
 }
@@ -31,8 +31,6 @@ import com.waz.zclient.ui.views.tab.TabIndicatorLayout;
 import com.waz.zclient.utils.Emojis;
 
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
 
@@ -135,22 +133,12 @@ public class EmojiBottomSheetDialog extends BottomSheetDialog {
             emojis.add(EmojiAdapter.SPACE);
         }
         for (String[] emojiArray : Emojis.getAllEmojisSortedByCategory()) {
-            emojis.addAll(getFilteredList(emojiArray, unsupported));
+            emojis.addAll(Emojis.getFilteredList(emojiArray, unsupported));
             spaces.add(emojis.size());
             emojis.add(EmojiAdapter.SPACE);
         }
     }
 
-    private List<String> getFilteredList(String[] strings, Set<String> unsupported) {
-        List<String> list = Arrays.asList(strings);
-        if (unsupported == null || unsupported.size() == 0) {
-            return list;
-        }
-        LinkedList<String> filteredList = new LinkedList<>(list);
-        filteredList.removeAll(unsupported);
-        return filteredList;
-    }
-
     private void setRecyclerViewPadding(RecyclerView recyclerView) {
         int padding;
         switch (currentEmojiSize) {
@@ -148,7 +148,7 @@ public class TextViewUtils {
             highlightStart = string.indexOf("[[");
             highlightEnd = string.indexOf("]]") - 2;
             spanPositions.add(new Pair<>(highlightStart, highlightEnd));
-            string = string.replaceFirst("\\[\\[", "").replaceFirst("]]", "");
+            string = removeFirst(removeFirst(string, "[["), "]]");
             if (highlightColor != null && colorHighlightStart <= highlightStart && colorHighlightEnd >= highlightEnd) {
                 // need to deduct the [[ and ]] from the color span
                 colorHighlightEnd -= 4;
@@ -172,6 +172,11 @@ public class TextViewUtils {
         return highlightSpannable;
     }
 
+    private static String removeFirst(String string, String marker) {
+        int index = string.indexOf(marker);
+        return index < 0 ? string : string.substring(0, index) + string.substring(index + marker.length());
+    }
+
     public static void linkifyText(TextView textView, final int highlightColor, boolean bold, final Runnable onClick) {
         linkifyText(textView, highlightColor, bold, true, onClick);
     }
@@ -19,8 +19,10 @@ package com.waz.zclient.utils;
 
 import com.waz.zclient.R;
 
+import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Set;
 
 /**
  * There seems to be an issue with decoding XML with emojis on some devices
@@ -49,6 +51,19 @@ public class Emojis {
         return all;
     }
 
+    /**
+     * @return the given emojis without the ones the device can't display
+     */
+    public static List<String> getFilteredList(String[] emojis, Set<String> unsupported) {
+        List<String> list = Arrays.asList(emojis);
+        if (unsupported == null || unsupported.size() == 0) {
+            return list;
+        }
+        LinkedList<String> filteredList = new LinkedList<>(list);
+        filteredList.removeAll(unsupported);
+        return filteredList;
+    }
+
     public static final int[] EMOJI_KEYBOARD_TAB_LABELS = {
         R.string.glyph__clock,
         R.string.glyph__emoji,
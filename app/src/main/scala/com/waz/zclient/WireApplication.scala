@@ -50,7 +50,6 @@ import com.waz.services.fcm.FetchJob
 import com.waz.services.gps.GoogleApiImpl
 import com.waz.services.websocket.WebSocketController
 import com.waz.sync.{SyncHandler, SyncRequestService}
-import com.waz.threading.Threading
 import com.waz.utils.SafeBase64
 import com.waz.utils.events.{EventContext, Signal}
 import com.waz.utils.wrappers.GoogleApi
@@ -75,6 +74,7 @@ import com.waz.zclient.conversation.creation.CreateConversationController
 import com.waz.zclient.conversationlist.ConversationListController
 import com.waz.zclient.cursor.CursorController
 import com.waz.zclient.messages.controllers.{MessageActionsController, NavigationController}
+import com.waz.zclient.messages.parts.footer.FooterStateController
 import com.waz.zclient.messages.{LikesController, MessagePagedListController, MessageViewFactory, MessagesController, UsersController}
 import com.waz.zclient.notifications.controllers.NotificationManagerWrapper.AndroidNotificationsManager
 import com.waz.zclient.notifications.controllers._
@@ -84,7 +84,8 @@ import com.waz.zclient.pages.main.pickuser.controller.IPickUserController
 import com.waz.zclient.participants.ParticipantsController
 import com.waz.zclient.preferences.PreferencesController
 import com.waz.zclient.tracking.{CrashController, GlobalTrackingController, UiTrackingController}
-import com.waz.zclient.utils.{AndroidBase64Delegate, BackStackNavigator, BackendPicker, Callback, ExternalFileSharing, LocalThumbnailCache, SafeLoggingEnabled, UiStorage}
+import com.waz.zclient.utils.StartupScheduler.{Critical, FirstFrame, Idle}
+import com.waz.zclient.utils.{AndroidBase64Delegate, BackStackNavigator, BackendPicker, Callback, ExternalFileSharing, LocalThumbnailCache, SafeLoggingEnabled, StartupScheduler, UiStorage}
 import com.waz.zclient.views.DraftMap
 import javax.net.ssl.SSLContext
 import org.threeten.bp.Clock
@@ -211,6 +212,7 @@ object WireApplication {
     bind [SyncRequestService]  to new WorkManagerSyncRequestService()
 
     //notifications
+    bind [NotificationAvatarCache]         to new NotificationAvatarCache()
     bind [MessageNotificationsController]  to new MessageNotificationsController()
     bind [ImageNotificationsController]    to new ImageNotificationsController()
     bind [CallingNotificationsController]  to new CallingNotificationsController()
@@ -272,6 +274,7 @@ object WireApplication {
     bind [ScreenController]          to new ScreenController()
     bind [MessageActionsController]  to new MessageActionsController()
     bind [LikesController]           to new LikesController()
+    bind [FooterStateController]     to new FooterStateController()
     bind [CollectionController]      to new CollectionController()
     bind [BackStackNavigator]        to new BackStackNavigator()
 
@@ -320,6 +323,8 @@ class WireApplication extends MultiDexApplication with WireContext with Injectab
 
   protected var controllerFactory: IControllerFactory = _
 
+  lazy val startupScheduler = new StartupScheduler(this, dumpTrace = BuildConfig.DEBUG)
+
   def contextModule(ctx: WireContext): Injector = controllers(ctx)
 
   private def enableTLS12OnOldDevices(): Unit = {
@@ -339,6 +344,8 @@ class WireApplication extends MultiDexApplication with WireContext with Injectab
   override def onCreate(): Unit = {
     super.onCreate()
 
+    startupScheduler
+
     SafeBase64.setDelegate(new AndroidBase64Delegate)
 
     if (!SafeLoggingEnabled) {
@@ -369,25 +376,30 @@ class WireApplication extends MultiDexApplication with WireContext with Injectab
     val prefs = GlobalPreferences(this)
     val googleApi = GoogleApiImpl(this, backend, prefs)
 
-    ZMessaging.onCreate(
-      this,
-      backend,
-      prefs,
-      googleApi,
-      null, //TODO: Use sync engine's version for now
-      inject[MessageNotificationsController]
-    )
-
-    inject[NotificationManagerWrapper]
-    inject[ImageNotificationsController]
-    inject[CallingNotificationsController]
-
-//    //TODO [AN-4942] - is this early enough for app launch events?
-    inject[GlobalTrackingController]
-    inject[CrashController] //needs to register crash handler
-    inject[ThemeController]
-    inject[PreferencesController]
-    Future(clearOldVideoFiles(getApplicationContext))(Threading.Background)
+    startupScheduler.schedule("ZMessaging", Critical) {
+      ZMessaging.onCreate(
+        this,
+        backend,
+        prefs,
+        googleApi,
+        null, //TODO: Use sync engine's version for now
+        inject[MessageNotificationsController]
+      )
+    }
+
+    // needed to show incoming calls or crash reports even if the app is started in the background
+    startupScheduler.schedule("NotificationManagerWrapper", Critical)(inject[NotificationManagerWrapper])
+    startupScheduler.schedule("CallingNotificationsController", Critical)(inject[CallingNotificationsController])
+    startupScheduler.schedule("CrashController", Critical)(inject[CrashController]) //needs to register crash handler
+
+    // the activities inject whatever they need themselves, everything else can wait until the first frame is drawn
+    startupScheduler.schedule("ImageNotificationsController", FirstFrame)(inject[ImageNotificationsController])
+    //TODO [AN-4942] - is this early enough for app launch events?
+    startupScheduler.schedule("GlobalTrackingController", FirstFrame)(inject[GlobalTrackingController])
+    startupScheduler.schedule("ThemeController", FirstFrame)(inject[ThemeController])
+    startupScheduler.schedule("PreferencesController", FirstFrame)(inject[PreferencesController])
+
+    startupScheduler.schedule("clearOldVideoFiles", Idle)(clearOldVideoFiles(getApplicationContext))
   }
 
   override def onTerminate(): Unit = {
@@ -18,6 +18,7 @@
 package com.waz.zclient.calling
 
 import android.content.Context
+import android.support.v7.util.DiffUtil
 import android.support.v7.widget.RecyclerView
 import android.support.v7.widget.RecyclerView.ViewHolder
 import android.view.{LayoutInflater, View, ViewGroup}
@@ -40,8 +41,8 @@ class CallParticipantsAdapter(implicit context: Context, eventContext: EventCont
 
   import CallParticipantsAdapter._
 
-  private var items = Seq.empty[CallParticipantInfo]
-  private var numOfParticipants = 0
+  private var participants = Vector.empty[CallParticipantInfo]
+  private var items = Seq.empty[Item]
   private var maxRows = Option.empty[Int]
   private var theme: Theme = Theme.Dark
 
@@ -55,38 +56,58 @@ class CallParticipantsAdapter(implicit context: Context, eventContext: EventCont
       if (maxRows > 0) Some(maxRows)
       else if (maxRows == 0) Some(1)  // we try to show the "Show all" button anyway
       else None
-    notifyDataSetChanged()
+    updateItems()
   }
 
   callController.participantInfos().onUi { v =>
-    numOfParticipants = v.size
-    items = maxRows.filter(_ < numOfParticipants).fold(v)(m => v.take(m - 1))
-    notifyDataSetChanged()
+    participants = v
+    updateItems()
   }
 
   callController.theme.onUi { theme =>
     this.theme = theme
-    notifyDataSetChanged()
+    notifyItemRangeChanged(0, getItemCount)
   }
 
-  override def getItemViewType(position: Int): Int =
-    if (maxRows.contains(position + 1) && maxRows.exists(_ < numOfParticipants)) ShowAll
-    else UserRow
+  /**
+    * Participants are matched by their user id, so only the rows which really changed are rebound,
+    * and rows of participants who just moved are animated to their new position instead.
+    */
+  private def updateItems(): Unit = {
+    val prev = items
+    items = maxRows.filter(_ < participants.size) match {
+      case Some(mr) => participants.take(mr - 1).map(ParticipantItem) :+ ShowAllItem(participants.size)
+      case None     => participants.map(ParticipantItem)
+    }
+    DiffUtil.calculateDiff(new DiffUtil.Callback {
+      override def getOldListSize: Int = prev.size
+      override def getNewListSize: Int = items.size
+      override def areItemsTheSame(oldPos: Int, newPos: Int): Boolean = (prev(oldPos), items(newPos)) match {
+        case (ParticipantItem(o), ParticipantItem(n)) => o.userId == n.userId
+        case (ShowAllItem(_), ShowAllItem(_))         => true
+        case _                                        => false
+      }
+      override def areContentsTheSame(oldPos: Int, newPos: Int): Boolean = prev(oldPos) == items(newPos)
+    }).dispatchUpdatesTo(this)
+  }
 
-  override def getItemCount: Int = maxRows match {
-    case Some(mr) if mr < numOfParticipants => mr
-    case _                                  => items.size
+  override def getItemViewType(position: Int): Int = items(position) match {
+    case ShowAllItem(_) => ShowAll
+    case _              => UserRow
   }
 
-  override def getItemId(position: Int): Long =
-    if (maxRows.contains(position) && maxRows.exists(_ < numOfParticipants)) 0
-    else items.lift(position).map(_.userId.hashCode().toLong).getOrElse(0)
+  override def getItemCount: Int = items.size
+
+  override def getItemId(position: Int): Long = items.lift(position) match {
+    case Some(ParticipantItem(info)) => info.userId.hashCode().toLong
+    case _                           => 0
+  }
 
   setHasStableIds(true)
 
-  override def onBindViewHolder(holder: ViewHolder, position: Int): Unit = holder match {
-    case h: CallParticipantViewHolder => h.bind(items(position), theme)
-    case h: ShowAllButtonViewHolder   => h.bind(numOfParticipants, theme)
+  override def onBindViewHolder(holder: ViewHolder, position: Int): Unit = (holder, items(position)) match {
+    case (h: CallParticipantViewHolder, ParticipantItem(info)) => h.bind(info, theme)
+    case (h: ShowAllButtonViewHolder, ShowAllItem(count))      => h.bind(count, theme)
     case _ =>
   }
 
@@ -103,6 +124,10 @@ class CallParticipantsAdapter(implicit context: Context, eventContext: EventCont
 object CallParticipantsAdapter {
   val UserRow = 0
   val ShowAll = 1
+
+  sealed trait Item
+  case class ParticipantItem(info: CallParticipantInfo) extends Item
+  case class ShowAllItem(numOfParticipants: Int) extends Item
 }
 
 case class CallParticipantViewHolder(view: SingleUserRowView) extends ViewHolder(view) {
@@ -35,7 +35,8 @@ import com.waz.zclient.calling.controllers.CallController
 import com.waz.zclient.common.controllers.{ThemeController, ThemeControllingFrameLayout}
 import com.waz.zclient.common.views.BackgroundDrawable
 import com.waz.zclient.common.views.ImageController.{ImageSource, WireImage}
-import com.waz.zclient.paintcode.{GenericStyleKitView, WireStyleKit}
+import com.waz.zclient.paintcode.GenericStyleKitView
+import com.waz.zclient.paintcode.WireDrawable.Icons
 import com.waz.zclient.utils.ContextUtils._
 import com.waz.zclient.utils.RichView
 import com.waz.zclient.{FragmentHelper, R, ViewHelper}
@@ -104,7 +105,7 @@ abstract class UserVideoView(context: Context, val userId: UserId) extends Frame
 
 class SelfVideoView(context: Context, userId: UserId) extends UserVideoView(context, userId) {
   protected val muteIcon = returning(findById[GenericStyleKitView](R.id.mute_icon)) { icon =>
-    icon.setOnDraw(WireStyleKit.drawMute)
+    icon.setOnDraw(Icons.Mute)
   }
 
   controller.isMuted.onUi {
@@ -134,6 +135,7 @@ class OtherVideoView(context: Context, userId: UserId) extends UserVideoView(con
 }
 
 class CallingFragment extends FragmentHelper {
+  import CallingFragment._
 
   private lazy val controller       = inject[CallController]
   private lazy val themeController  = inject[ThemeController]
@@ -141,6 +143,7 @@ class CallingFragment extends FragmentHelper {
   private lazy val previewCardView  = view[CardView](R.id.preview_card_view)
 
   private var viewMap = Map[UserId, UserVideoView]()
+  private var gridPositions = Map[UserId, GridPosition]()
 
   private lazy val videoGrid = returning(view[GridLayout](R.id.video_grid)) { vh =>
     Signal(controller.allVideoReceiveStates, controller.callingZms.map(_.selfUserId), controller.isVideoCall, controller.isCallIncoming).onUi { case (vrs, selfId, videoCall, incoming) =>
@@ -167,15 +170,17 @@ class CallingFragment extends FragmentHelper {
           previewCardView.foreach { cardView =>
             if (views.size == 2 && isVideoBeingSent) {
               verbose("Showing card preview")
-              cardView.removeAllViews()
-              v.removeView(selfView)
-              selfView.setLayoutParams(
-                new FrameLayout.LayoutParams(
-                  ViewGroup.LayoutParams.MATCH_PARENT,
-                  ViewGroup.LayoutParams.MATCH_PARENT
+              if (selfView.getParent != cardView) {
+                cardView.removeAllViews()
+                detach(selfView)
+                selfView.setLayoutParams(
+                  new FrameLayout.LayoutParams(
+                    ViewGroup.LayoutParams.MATCH_PARENT,
+                    ViewGroup.LayoutParams.MATCH_PARENT
+                  )
                 )
-              )
-              cardView.addView(selfView)
+                cardView.addView(selfView)
+              }
               cardView.setVisibility(View.VISIBLE)
             } else {
               verbose("Hiding card preview")
@@ -194,36 +199,51 @@ class CallingFragment extends FragmentHelper {
           case (v1, v2)             => v1.userId.str.hashCode > v2.userId.str.hashCode
         }
 
-        gridViews.zipWithIndex.foreach { case (r, index) =>
-          val (row, col, span) = index match {
-            case 0 if !isVideoBeingSent && gridViews.size == 2 => (0, 0, 2)
-            case 0                                             => (0, 0, 1)
-            case 1 if !isVideoBeingSent && gridViews.size == 2 => (1, 0, 2)
-            case 1                                             => (0, 1, 1)
-            case 2 if gridViews.size == 3                      => (1, 0, 2)
-            case 2                                             => (1, 0, 1)
-            case 3                                             => (1, 1, 1)
-          }
-          r.setLayoutParams(returning(new GridLayout.LayoutParams()) { params =>
-            params.width      = 0
-            params.height     = 0
-            params.rowSpec    = GridLayout.spec(row, 1, GridLayout.FILL, 1f)
-            params.columnSpec = GridLayout.spec(col, span, GridLayout.FILL, 1f)
-          })
-
-          if (r.getParent == null) v.addView(r)
-        }
-
         val viewsToRemove = viewMap.filter {
           case (uid, selfView) if uid == selfId => !gridViews.contains(selfView)
           case (uId, _)                         => !videoUsers.contains(uId)
         }
         viewsToRemove.foreach { case (_, view) => v.removeView(view) }
         viewMap = viewMap.filter { case (uId, _) => videoUsers.contains(uId) }
+        gridPositions = gridPositions.filter { case (uId, _) => gridViews.exists(_.userId == uId) }
+
+        // Views which are already attached only get new layout params if their cell actually changed. This way
+        // the video surfaces survive any state change which doesn't affect the layout (e.g. someone muting).
+        gridViews.zipWithIndex.foreach { case (r, index) =>
+          val position = index match {
+            case 0 if !isVideoBeingSent && gridViews.size == 2 => GridPosition(0, 0, 2)
+            case 0                                             => GridPosition(0, 0, 1)
+            case 1 if !isVideoBeingSent && gridViews.size == 2 => GridPosition(1, 0, 2)
+            case 1                                             => GridPosition(0, 1, 1)
+            case 2 if gridViews.size == 3                      => GridPosition(1, 0, 2)
+            case 2                                             => GridPosition(1, 0, 1)
+            case 3                                             => GridPosition(1, 1, 1)
+          }
+
+          if (r.getParent != v || !gridPositions.get(r.userId).contains(position)) {
+            r.setLayoutParams(returning(new GridLayout.LayoutParams()) { params =>
+              params.width      = 0
+              params.height     = 0
+              params.rowSpec    = GridLayout.spec(position.row, 1, GridLayout.FILL, 1f)
+              params.columnSpec = GridLayout.spec(position.col, position.span, GridLayout.FILL, 1f)
+            })
+            gridPositions += r.userId -> position
+          }
+
+          if (r.getParent != v) {
+            detach(r)
+            v.addView(r)
+          }
+        }
       }
     }
   }
 
+  private def detach(view: View): Unit = view.getParent match {
+    case parent: ViewGroup => parent.removeView(view)
+    case _ =>
+  }
+
   override def onCreate(savedInstanceState: Bundle): Unit = {
     super.onCreate(savedInstanceState)
     controller.theme.map(themeController.getTheme).onUi(theme => videoGrid.foreach(_.setBackgroundColor(getStyledColor(R.attr.wireBackgroundColor, theme))))
@@ -256,10 +276,14 @@ class CallingFragment extends FragmentHelper {
   override def onDestroyView(): Unit = {
     super.onDestroyView()
     viewMap = Map()
+    gridPositions = Map()
   }
 }
 
 object CallingFragment {
   val Tag = implicitLogTag
+
+  case class GridPosition(row: Int, col: Int, span: Int)
+
   def apply(): CallingFragment = new CallingFragment()
 }
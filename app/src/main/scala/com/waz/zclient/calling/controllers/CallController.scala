@@ -121,17 +121,25 @@ class CallController(implicit inj: Injector, cxt: WireContext, eventContext: Eve
     case false => themeController.currentTheme
   }
 
+  // the users are only loaded again when someone joins or leaves, not when the order or any other call state changes
+  private lazy val participantUsers: Signal[Map[UserId, UserData]] =
+    for {
+      cZms  <- callingZms
+      ids   <- others.map(_.keySet)
+      users <- cZms.usersStorage.listSignal(ids.toSeq)
+    } yield users.map(u => u.id -> u).toMap
+
+  private lazy val participantsOrder: Signal[Seq[UserId]] =
+    others.map(_.toSeq.sortBy(_._2.getOrElse(LocalInstant.Epoch)).reverse.map(_._1))
+
   def participantInfos(take: Option[Int] = None): Signal[Vector[CallParticipantInfo]] =
     for {
       cZms        <- callingZms
-      ids         <- others.map { os =>
-        val ordered = os.toSeq.sortBy(_._2.getOrElse(LocalInstant.Epoch)).reverse.map(_._1)
-        take.fold(ordered)(t => ordered.take(t))
-      }
-      users       <- cZms.usersStorage.listSignal(ids)
+      ids         <- participantsOrder.map(ordered => take.fold(ordered)(t => ordered.take(t)))
+      users       <- participantUsers
       videoStates <- allVideoReceiveStates
     } yield
-      users.map { u =>
+      ids.flatMap(users.get).toVector.map { u =>
         CallParticipantInfo(
           u.id,
           u.picture,
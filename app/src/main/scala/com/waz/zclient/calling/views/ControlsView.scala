@@ -32,6 +32,7 @@ import com.waz.utils.events.{EventStream, Signal, SourceStream}
 import com.waz.utils.returning
 import com.waz.zclient.calling.controllers.CallController
 import com.waz.zclient.calling.views.CallControlButtonView.ButtonColor
+import com.waz.zclient.paintcode.WireDrawable.Icons
 import com.waz.zclient.paintcode._
 import com.waz.zclient.utils.ContextUtils._
 import com.waz.zclient.utils.RichView
@@ -64,13 +65,13 @@ class ControlsView(val context: Context, val attrs: AttributeSet, val defStyleAt
 
   // first row
   returning(findById[CallControlButtonView](R.id.mute_call)) { button =>
-    button.set(WireStyleKit.drawMute, R.string.incoming__controls__ongoing__mute, mute)
+    button.set(Icons.Mute, R.string.incoming__controls__ongoing__mute, mute)
     button.setEnabled(true)
     controller.isMuted.onUi(button.setActivated)
   }
 
   returning(findById[CallControlButtonView](R.id.video_call)) { button =>
-    button.set(WireStyleKit.drawVideocall, R.string.incoming__controls__ongoing__video, video)
+    button.set(Icons.Videocall, R.string.incoming__controls__ongoing__video, video)
 
     isVideoBeingSent.onUi(button.setActivated)
 
@@ -89,9 +90,9 @@ class ControlsView(val context: Context, val attrs: AttributeSet, val defStyleAt
     button.setEnabled(true)
     isVideoBeingSent.onUi {
       case true =>
-        button.set(WireStyleKit.drawFlip, R.string.incoming__controls__ongoing__flip, flip)
+        button.set(Icons.Flip, R.string.incoming__controls__ongoing__flip, flip)
       case false =>
-        button.set(WireStyleKit.drawSpeaker, R.string.incoming__controls__ongoing__speaker, speaker)
+        button.set(Icons.Speaker, R.string.incoming__controls__ongoing__speaker, speaker)
     }
     Signal(controller.speakerButton.buttonState, isVideoBeingSent).onUi {
       case (buttonState, false) => button.setActivated(buttonState)
@@ -102,12 +103,12 @@ class ControlsView(val context: Context, val attrs: AttributeSet, val defStyleAt
   // second row
   returning(findById[CallControlButtonView](R.id.reject_call)) { button =>
     button.setEnabled(true)
-    button.set(WireStyleKit.drawHangUpCall, R.string.empty_string, leave, Some(ButtonColor.Red))
+    button.set(Icons.HangUpCall, R.string.empty_string, leave, Some(ButtonColor.Red))
     controller.isCallIncoming.onUi(button.setVisible)
   }
 
   returning(findById[CallControlButtonView](R.id.end_call)) { button =>
-    button.set(WireStyleKit.drawHangUpCall, R.string.empty_string, leave, Some(ButtonColor.Red))
+    button.set(Icons.HangUpCall, R.string.empty_string, leave, Some(ButtonColor.Red))
     controller.callStateOpt.map(_.exists(state => Set[CallInfo.CallState](SelfJoining, SelfCalling, SelfConnected).contains(state))).onUi { visible =>
       button.setVisibility(if(visible) View.VISIBLE else View.INVISIBLE)
       button.setEnabled(visible)
@@ -115,7 +116,7 @@ class ControlsView(val context: Context, val attrs: AttributeSet, val defStyleAt
   }
 
   returning(findById[CallControlButtonView](R.id.accept_call)) { button =>
-    button.set(WireStyleKit.drawAcceptCall, R.string.empty_string, accept, Some(ButtonColor.Green))
+    button.set(Icons.AcceptCall, R.string.empty_string, accept, Some(ButtonColor.Green))
     button.setEnabled(true)
     controller.isCallIncoming.onUi(button.setVisible)
   }
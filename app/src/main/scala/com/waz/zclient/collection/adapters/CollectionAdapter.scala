@@ -72,7 +72,15 @@ class CollectionAdapter(viewDim: Signal[Dim2])(implicit context: Context, inject
     Files -> None,
     Links -> None)
 
-  def cursorForContentMode(contentType: ContentType): Unit ={
+  private var requestedCursors = Set.empty[ContentType]
+  private val overviewCursor = Signal(Option.empty[RecyclerCursor])
+
+  /**
+    * Opens the cursor for the given content type unless it was already requested. Once opened, a cursor is kept
+    * until the adapter is closed (or the conversation changes), so switching between tabs doesn't requery.
+    */
+  def cursorForContentMode(contentType: ContentType): Unit = if (!requestedCursors.contains(contentType)) {
+    requestedCursors += contentType
     val notifier = new CollectionRecyclerNotifier(contentType, adapter)
     val cursor = for {
       zs <- zms
@@ -86,20 +94,36 @@ class CollectionAdapter(viewDim: Signal[Dim2])(implicit context: Context, inject
       if (!collectionCursors(contentType).contains(c)) {
         collectionCursors(contentType).foreach(_.close())
         collectionCursors(contentType) = Some(c)
+        if (contentType == AllContent) overviewCursor ! Some(c)
         debug(s"Cursor loaded for: ${contentType.toString}, current mode is: ${contentMode.currentValue.toString}")
         notifier.notifyDataSetChanged()
       }
     }
   }
 
-  collectionCursors.foreach(t => cursorForContentMode(t._1))
+  // The overview only needs its own, limited cursor. The full cursor of a section is opened only when the section is
+  // shown, or when its preview is full and we need the real count for the header.
+  cursorForContentMode(AllContent)
+
+  contentMode.on(Threading.Ui)(cursorForContentMode)
+
+  overviewCursor.flatMap(_.fold(Signal.const(0))(_.countSignal)).on(Threading.Ui) { _ =>
+    PreviewTypes.foreach { tpe =>
+      if (getPreviewCount(tpe) >= previewLimit(tpe)) cursorForContentMode(tpe)
+    }
+  }
 
   def messages = contentMode.currentValue.fold(Option.empty[RecyclerCursor])(collectionCursors(_))
 
-  Signal(contentMode, viewDim) .on(Threading.Ui){ _ =>
+  contentMode.onChanged.on(Threading.Ui) { _ =>
     notifyDataSetChanged()
   }
 
+  // only image cells depend on the view width, and only when it really changes
+  viewDim.map(_.width).onChanged.on(Threading.Ui) { _ =>
+    notifyItemRangeChanged(0, getItemCount)
+  }
+
   setHasStableIds(true)
   registerAdapterDataObserver(new AdapterDataObserver {
     override def onChanged(): Unit = {
@@ -306,18 +330,30 @@ class CollectionAdapter(viewDim: Signal[Dim2])(implicit context: Context, inject
 
   private def getHeaderCount(headerId: HeaderId): Int = {
     headerId match {
-      case HeaderId(HeaderType.Images, _, _) => collectionCursors(Images).fold(0)(_.count)
-      case HeaderId(HeaderType.Files, _, _) => collectionCursors(Files).fold(0)(_.count)
-      case HeaderId(HeaderType.Links, _, _) => collectionCursors(Links).fold(0)(_.count)
+      case HeaderId(HeaderType.Images, _, _) => getSectionCount(Images)
+      case HeaderId(HeaderType.Files, _, _) => getSectionCount(Files)
+      case HeaderId(HeaderType.Links, _, _) => getSectionCount(Links)
       case _ => 0
     }
   }
 
+  /**
+    * The full count of a section is only known once its own cursor is loaded. Until then (or if the section's preview
+    * isn't full, in which case the cursor is never opened) the number of items shown in the overview is the count.
+    */
+  private def getSectionCount(contentType: ContentType): Int =
+    collectionCursors(contentType).fold(getPreviewCount(contentType))(_.count)
+
+  private def getPreviewCount(contentType: ContentType): Int =
+    collectionCursors(AllContent).fold(0) { c =>
+      (0 until c.count).count(i => contentType.msgTypes.contains(c(i).message.msgType))
+    }
+
   private def shouldBeClickable(headerId: HeaderId): Boolean = {
     val minCount = headerId match {
-      case HeaderId(HeaderType.Images, _, _) => AllContent.typeFilter.find(_.msgType == Message.Type.ASSET).flatMap(_.limit).getOrElse(0)
-      case HeaderId(HeaderType.Files, _, _) => AllContent.typeFilter.find(_.msgType == Message.Type.ANY_ASSET).flatMap(_.limit).getOrElse(0)
-      case HeaderId(HeaderType.Links, _, _) => AllContent.typeFilter.find(_.msgType == Message.Type.RICH_MEDIA).flatMap(_.limit).getOrElse(0)
+      case HeaderId(HeaderType.Images, _, _) => previewLimit(Images)
+      case HeaderId(HeaderType.Files, _, _) => previewLimit(Files)
+      case HeaderId(HeaderType.Links, _, _) => previewLimit(Links)
       case _ => 0
     }
     minCount > 0 && getHeaderCount(headerId) > minCount
@@ -338,6 +374,7 @@ class CollectionAdapter(viewDim: Signal[Dim2])(implicit context: Context, inject
 
   def closeCursors(): Unit ={
     collectionCursors.foreach(_._2.foreach(_.close()))
+    overviewCursor ! None
   }
 }
 
@@ -371,6 +408,11 @@ object CollectionAdapter {
   val VIEW_TYPE_SIMPLE_LINK = 3
   val VIEW_TYPE_DEFAULT = VIEW_TYPE_FILE
 
+  val PreviewTypes = Seq(Images, Files, Links)
+
+  def previewLimit(contentType: ContentType): Int =
+    AllContent.typeFilter.find(f => contentType.msgTypes.contains(f.msgType)).flatMap(_.limit).getOrElse(0)
+
   case class CollectionHeaderLinearLayout(context: Context, attrs: AttributeSet, defStyleAttr: Int) extends LinearLayout(context, attrs, defStyleAttr) {
 
     def this(context: Context, attrs: AttributeSet) = this(context, attrs, 0)
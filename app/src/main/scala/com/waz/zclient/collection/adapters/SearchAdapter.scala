@@ -27,7 +27,7 @@ import com.waz.api.{ContentSearchQuery, MessageFilter}
 import com.waz.model.ConvId
 import com.waz.service.ZMessaging
 import com.waz.service.messages.MessageAndLikes
-import com.waz.threading.Threading
+import com.waz.threading.{CancellableFuture, Threading}
 import com.waz.utils.events.{EventContext, Signal}
 import com.waz.utils.returning
 import com.waz.zclient.collection.controllers.CollectionController
@@ -37,34 +37,65 @@ import com.waz.zclient.messages.RecyclerCursor.RecyclerNotifier
 import com.waz.zclient.usersearch.views.{SearchResultRowView, TextSearchResultRowView}
 import com.waz.zclient.{Injectable, Injector}
 
+import scala.concurrent.duration._
+
 /*
 TODO: some of this stuff is duplicated from MessagesListAdapter. Maybe there's a possibility of some refactoring and create a 'base adapter' for messageCursors
  */
 class SearchAdapter()(implicit context: Context, injector: Injector, eventContext: EventContext) extends RecyclerView.Adapter[ViewHolder] with Injectable { adapter =>
 
+  import SearchAdapter._
+
   val zms = inject[Signal[ZMessaging]]
   val contentSearchQuery = inject[CollectionController].contentSearchQuery
 
+  /**
+    * The query used for the cursor: typing is debounced, and only the latest query survives, so intermediate
+    * keystrokes never hit the database. Queries which normalize to the same elements (e.g. a trailing space or a
+    * different case) don't trigger a new search either. The rows highlight this query too, so that they follow the
+    * results rather than each keystroke.
+    */
+  val searchQuery = contentSearchQuery
+    .flatMap { q =>
+      if (q.isEmpty) Signal.const(q)
+      else Signal.future(CancellableFuture.delay(SearchDebounceDelay).future.map(_ => q)(Threading.Background))
+    }
+    .map(_.elements)
+    .map(els => ContentSearchQuery(els.mkString(" ")))
+
   val cursor = for {
     zs <- zms
     convId <- inject[ConversationController].currentConvId
-    query <- contentSearchQuery
+    query <- searchQuery
   } yield
-    new RecyclerCursor(convId, zs, notifier, messageFilter = Some(MessageFilter(None, Some(query))))
+    new RecyclerCursor(convId, zs, new CursorNotifier, messageFilter = Some(MessageFilter(None, Some(query))))
 
   private var messages = Option.empty[RecyclerCursor]
+  private var pending = Option.empty[RecyclerCursor]
   private var convId = ConvId()
 
+  // A cursor which got superseded by a newer query before it finished loading is of no use anymore
+  cursor.on(Threading.Ui) { c =>
+    pending.filterNot(p => p == c || messages.contains(p)).foreach { p =>
+      verbose(s"cancelling superseded search cursor")
+      p.close()
+    }
+    pending = Some(c)
+  }
+
   val cursorLoader = for{
     c <- cursor
     true <- c.cursorLoaded
   } yield c
 
+  // The previous results stay visible until the cursor for the new query is loaded, so a narrowing query doesn't
+  // flash an empty list in between
   cursorLoader.on(Threading.Ui) { c =>
     if (!messages.contains(c)) {
       verbose(s"cursor changed: ${c.count}")
       messages.foreach(_.close())
       messages = Some(c)
+      if (pending.contains(c)) pending = None
       convId = c.conv
       notifier.notifyDataSetChanged()
     }
@@ -84,7 +115,7 @@ class SearchAdapter()(implicit context: Context, injector: Injector, eventContex
 
   override def onCreateViewHolder(parent: ViewGroup, viewType: Int): ViewHolder = {
     returning(new SearchResultRowViewHolder(new TextSearchResultRowView(context))) {
-      _.setSearchQuerySignal(contentSearchQuery)
+      _.setSearchQuerySignal(searchQuery)
     }
   }
 
@@ -113,6 +144,26 @@ class SearchAdapter()(implicit context: Context, injector: Injector, eventContex
       adapter.notifyDataSetChanged()
     }
   }
+
+  /**
+    * Every cursor gets its own notifier, which only forwards changes while its cursor is the one being displayed.
+    * Cursors which are still loading (or being closed) must not touch the list.
+    */
+  private class CursorNotifier extends RecyclerNotifier {
+    private def isDisplayed = messages.exists(_.adapter eq this)
+
+    override def notifyDataSetChanged() = if (isDisplayed) notifier.notifyDataSetChanged()
+
+    override def notifyItemRangeInserted(index: Int, length: Int) = if (isDisplayed) notifier.notifyItemRangeInserted(index, length)
+
+    override def notifyItemRangeRemoved(pos: Int, count: Int) = if (isDisplayed) notifier.notifyItemRangeRemoved(pos, count)
+
+    override def notifyItemRangeChanged(index: Int, length: Int) = if (isDisplayed) notifier.notifyItemRangeChanged(index, length)
+  }
+}
+
+object SearchAdapter {
+  val SearchDebounceDelay = 300.millis
 }
 
 class SearchResultRowViewHolder(view: SearchResultRowView)(implicit eventContext: EventContext) extends RecyclerView.ViewHolder(view){
@@ -21,17 +21,21 @@ import java.lang.Math.min
 
 import android.text.SpannableString
 import android.text.style.BackgroundColorSpan
+import android.util.LruCache
 import com.waz.ZLog._
 import com.waz.api.{ContentSearchQuery, IConversation, Message, TypeFilter}
 import com.waz.model._
 import com.waz.service.ZMessaging
 import com.waz.threading.SerialDispatchQueue
 import com.waz.utils.events.{EventStream, Signal, SourceSignal}
-import com.waz.zclient.collection.controllers.CollectionController.CollectionInfo
+import com.waz.utils.returning
+import com.waz.zclient.collection.controllers.CollectionController.{CollectionInfo, HighlightCacheSize, NormalizedContentCacheSize}
 import com.waz.zclient.controllers.collections.CollectionsObserver
 import com.waz.zclient.conversation.ConversationController
 import com.waz.zclient.{Injectable, Injector}
 
+import scala.concurrent.Future
+
 class CollectionController(implicit injector: Injector) extends Injectable {
 
   private implicit val tag: LogTag = logTagFor[CollectionController]
@@ -70,6 +74,41 @@ class CollectionController(implicit injector: Injector) extends Injectable {
            else Signal future z.messagesIndexStorage.matchingMessages(query, Some(convId))
   } yield res
 
+  // normalized content doesn't depend on the query, so it can be reused while the user keeps typing
+  // (keyed with the edit time, so that edited messages are indexed again)
+  private val normalizedContentCache = new LruCache[(MessageId, RemoteInstant), Option[String]](NormalizedContentCacheSize)
+  private val highlightCache = new LruCache[(MessageId, RemoteInstant, Set[String], Int), (SpannableString, Int)](HighlightCacheSize)
+
+  /**
+    * Computes the highlighted search result text of the given message off the UI thread. The result is cached per
+    * (message, query, color), so rebinding a row for the same query doesn't compute it again.
+    * Returns `None` if the message has no indexed content.
+    */
+  def highlightedSearchResult(msg: MessageData, query: ContentSearchQuery, color: Int, beginThreshold: Int): Future[Option[(SpannableString, Int)]] = {
+    val key = (msg.id, msg.editTime, query.elements, color)
+    Option(highlightCache.get(key)) match {
+      case Some(res) => Future.successful(Some(res))
+      case None =>
+        for {
+          nContent <- normalizedContent(msg)
+        } yield nContent.map { normalized =>
+          returning(CollectionUtils.getHighlightedSpannableString(msg.contentString, normalized, query.elements, color, beginThreshold))(highlightCache.put(key, _))
+        }
+    }
+  }
+
+  private def normalizedContent(msg: MessageData): Future[Option[String]] = {
+    val key = (msg.id, msg.editTime)
+    Option(normalizedContentCache.get(key)) match {
+      case Some(content) => Future.successful(content)
+      case None =>
+        for {
+          z       <- zms.head
+          content <- z.messagesIndexStorage.getNormalizedContentForMessage(msg.id)
+        } yield returning(content)(normalizedContentCache.put(key, _))
+    }
+  }
+
   def openCollection() = observers foreach { _.openCollection() }
 
   def closeCollection() = { observers foreach { _.closeCollection() }; openedCollection ! None }
@@ -81,12 +120,17 @@ class CollectionController(implicit injector: Injector) extends Injectable {
   def clearSearch() = {
     focusedItem ! None
     contentSearchQuery ! ContentSearchQuery.empty
+    highlightCache.evictAll()
+    normalizedContentCache.evictAll()
   }
 }
 
 object CollectionController {
 
   val GridColumns = 4
+  val NormalizedContentCacheSize = 200
+  val HighlightCacheSize = 100
+
   def injectedCollectionController(injectable: Injectable)(implicit injector: Injector): CollectionController =  {
     injectable.inject[CollectionController]
   }
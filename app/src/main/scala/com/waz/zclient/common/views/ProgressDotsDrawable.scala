@@ -20,14 +20,23 @@ package com.waz.zclient.common.views
 import android.content.Context
 import android.graphics.drawable.Drawable
 import android.graphics.{Canvas, ColorFilter, Paint, PixelFormat}
-import android.os.SystemClock
+import android.os.{Handler, Looper, SystemClock}
 import com.waz.utils.returning
 import com.waz.zclient.R
 import com.waz.zclient.utils.ContextUtils._
 
+import scala.collection.mutable
 import scala.concurrent.duration._
 
+/**
+  * Three dots, one of which is highlighted in turn. All the instances are animated by a single clock, which ticks when
+  * the next of them has to change its highlighted dot, and only as long as any of them is being drawn: a drawable is
+  * animated from the time it's drawn until its highlighted dot changes, and drawing it again (after the invalidation)
+  * keeps it going. So the ones which are scrolled away, detached or hidden stop after at most one more step, without
+  * anything having to stop them.
+  */
 class ProgressDotsDrawable(duration: FiniteDuration = (350 * 3).millis)(implicit context: Context) extends Drawable {
+  import ProgressDotsDrawable._
 
   private val lightPaint = returning(new Paint) { _.setColor(getColor(R.color.graphite_16)) }
   private val darkPaint = returning(new Paint) { _.setColor(getColor(R.color.graphite_40)) }
@@ -35,10 +44,11 @@ class ProgressDotsDrawable(duration: FiniteDuration = (350 * 3).millis)(implicit
   private val dotSpacing = getDimenPx(R.dimen.progress_dot_spacing_and_width)
   private val dotRadius = dotSpacing / 2
 
-  private val frameMillis = duration.toMillis / 3
-  private val invalidate = new Runnable {
-    override def run(): Unit = invalidateSelf()
-  }
+  private val frameMillis = duration.toMillis / 3 max 1
+
+  // the step drawn last, only accessed on the UI thread
+  private var drawnStep = -1L
+  private var isAnimated = false
 
   override def setColorFilter(colorFilter: ColorFilter): Unit = {
     lightPaint.setColorFilter(colorFilter)
@@ -52,16 +62,87 @@ class ProgressDotsDrawable(duration: FiniteDuration = (350 * 3).millis)(implicit
 
   override def getOpacity: Int = PixelFormat.TRANSLUCENT
 
+  override def setVisible(visible: Boolean, restart: Boolean): Boolean = {
+    if (!visible) stopAnimating(this)
+    super.setVisible(visible, restart)
+  }
+
   override def draw(canvas: Canvas): Unit = {
-    val uptime = SystemClock.uptimeMillis()
-    val darkDotIndex = (uptime / frameMillis) % 3
+    drawnStep = SystemClock.uptimeMillis / frameMillis
+    val darkDotIndex = drawnStep % 3
 
     val centerY = canvas.getHeight / 2
     val left = canvas.getWidth / 2 - 2 * dotSpacing
-    for (i <- 0 until 3) {
+    var i = 0
+    while (i < 3) {
       canvas.drawCircle(left + i * 2 * dotSpacing, centerY, dotRadius, if (darkDotIndex == i) darkPaint else lightPaint)
+      i += 1
+    }
+
+    if (isVisible) animate(this)
+  }
+
+  /**
+    * @return true if the drawable was invalidated, and so has to be drawn again to keep animating
+    */
+  private def onTick(uptime: Long): Boolean =
+    if (uptime / frameMillis == drawnStep) false
+    else {
+      invalidateSelf()
+      true
     }
 
-    scheduleSelf(invalidate, frameMillis - uptime % frameMillis + 1)
+  private def nextStepTime: Long = (drawnStep + 1) * frameMillis
+}
+
+object ProgressDotsDrawable {
+
+  private lazy val handler = new Handler(Looper.getMainLooper)
+
+  // the drawables currently animated and the (uptime) time of the next tick, or -1, only accessed on the UI thread
+  private val animated = mutable.ArrayBuffer.empty[ProgressDotsDrawable]
+  private var nextTick = -1L
+
+  private val tick = new Runnable {
+    override def run(): Unit = {
+      nextTick = -1L
+      val uptime = SystemClock.uptimeMillis
+      var i = animated.size - 1
+      while (i >= 0) {
+        val d = animated(i)
+        if (d.onTick(uptime)) {
+          d.isAnimated = false
+          animated.remove(i)
+        }
+        i -= 1
+      }
+      schedule()
+    }
+  }
+
+  private def animate(d: ProgressDotsDrawable): Unit = if (!d.isAnimated) {
+    d.isAnimated = true
+    animated += d
+    schedule()
+  }
+
+  private def stopAnimating(d: ProgressDotsDrawable): Unit = if (d.isAnimated) {
+    d.isAnimated = false
+    animated -= d
+  }
+
+  // (re)schedules the tick for the earliest step change of the animated drawables, if there are any
+  private def schedule(): Unit = if (animated.nonEmpty) {
+    var time = Long.MaxValue
+    var i = 0
+    while (i < animated.size) {
+      time = time min animated(i).nextStepTime
+      i += 1
+    }
+    if (nextTick < 0 || nextTick > time) {
+      handler.removeCallbacks(tick)
+      handler.postAtTime(tick, time)
+      nextTick = time
+    }
   }
 }
@@ -0,0 +1,191 @@
+/**
+ * Wire
+ * Copyright (C) 2018 Wire Swiss GmbH
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.waz.zclient.conversation
+
+import android.graphics._
+import com.waz.ZLog.ImplicitTag._
+import com.waz.ZLog._
+import com.waz.model.Dim2
+import com.waz.threading.{SerialDispatchQueue, Threading}
+import com.waz.zclient.conversation.ImageTiles._
+
+import scala.concurrent.Future
+import scala.util.control.NonFatal
+import scala.util.{Success, Try}
+
+/**
+  * Decodes the visible part of a large image in tiles, at the resolution of the current zoom level, to be drawn on top
+  * of the screen-sized image of the full-screen viewer.
+  *
+  * Tiles are only used once the image is zoomed in beyond `MinTileZoom`, and only for images with more pixels than the
+  * view shows when they fit it. They cover `TileSize` pixels of the decoded (i.e. sub-sampled) image, the sample size being the
+  * largest power of two which keeps at least one decoded pixel per screen pixel. Only the tiles covering the viewport
+  * are kept: the others are evicted as the user pans or zooms, and all of them (with the decoder) on `release`.
+  *
+  * The region decoder doesn't apply the EXIF orientation, so tiles are skipped for images whose decoded dimensions
+  * don't match the displayed ones.
+  *
+  * @param imageDim the dimensions of the displayed image
+  * @param open     opens a region decoder for the original image, called once tiles are needed for the first time
+  * @param onTileLoaded called on the UI thread whenever a tile was decoded, to redraw the view
+  */
+class ImageTiles(imageDim: Dim2, open: () => Future[Option[BitmapRegionDecoder]], onTileLoaded: () => Unit) {
+
+  private var decoder = Option.empty[Future[Option[BitmapRegionDecoder]]]
+  private var tiles   = Map.empty[Tile, Bitmap]
+  private var loading = Set.empty[Tile]
+  // the tiles covering the viewport, read by the decoding thread to skip the ones which aren't needed anymore
+  @volatile private var wanted = Set.empty[Tile]
+
+  private val values   = new Array[Float](9)
+  private val inverse  = new Matrix
+  private val viewport = new RectF
+  private val dstRect  = new RectF
+  private val paint    = new Paint(Paint.FILTER_BITMAP_FLAG)
+
+  /**
+    * Draws the tiles covering the viewport, and starts decoding the missing ones. Must be called on the UI thread.
+    *
+    * @param imageToView maps the pixels of the image (with the dimensions `imageDim`) to the view
+    * @param zoom        the zoom level of the view, 1 when the image fits the view
+    */
+  def draw(canvas: Canvas, imageToView: Matrix, zoom: Float, viewWidth: Int, viewHeight: Int): Unit = {
+    imageToView.getValues(values)
+    val scale = values(Matrix.MSCALE_X)
+
+    // at zoom level 1 the whole image fits the view, if it then has no more pixels than the view the base image is enough
+    if (zoom < MinTileZoom || scale / zoom >= 1f || !imageToView.invert(inverse)) evictAll()
+    else openedDecoder.foreach { d =>
+      viewport.set(0, 0, viewWidth, viewHeight)
+      inverse.mapRect(viewport)
+      val visible = Bounds(viewport.left.toInt, viewport.top.toInt, math.ceil(viewport.right).toInt, math.ceil(viewport.bottom).toInt)
+      val needed = tilesCovering(visible, imageDim, sampleSize(scale))
+
+      evict(tiles.keySet -- needed)
+      wanted = needed
+      (needed -- tiles.keySet -- loading).foreach(load(d, _))
+
+      canvas.save()
+      canvas.concat(imageToView)
+      needed.foreach { tile =>
+        tiles.get(tile).foreach { bmp =>
+          dstRect.set(tile.left, tile.top, tile.right, tile.bottom)
+          canvas.drawBitmap(bmp, null, dstRect, paint)
+        }
+      }
+      canvas.restore()
+    }
+  }
+
+  def release(): Unit = {
+    evictAll()
+    decoder.foreach(_.foreach(_.foreach(_.recycle()))(Dispatcher))
+    decoder = None
+  }
+
+  private def openedDecoder: Option[BitmapRegionDecoder] = {
+    if (decoder.isEmpty) {
+      decoder = Some(open().map {
+        case Some(d) if Dim2(d.getWidth, d.getHeight) != imageDim =>
+          verbose(s"decoded dimensions ${d.getWidth}x${d.getHeight} don't match $imageDim, tiles disabled")
+          d.recycle()
+          None
+        case d => d
+      }(Dispatcher).recover { case NonFatal(e) =>
+        warn("failed to open region decoder", e)
+        None
+      }(Dispatcher))
+      decoder.foreach(_.foreach(_ => onTileLoaded())(Threading.Ui))
+    }
+    decoder.flatMap(_.value).collect { case Success(Some(d)) => d }
+  }
+
+  private def load(d: BitmapRegionDecoder, tile: Tile): Unit = {
+    loading += tile
+    Future {
+      if (wanted(tile)) Try {
+        val opts = new BitmapFactory.Options
+        opts.inSampleSize = tile.sampleSize
+        opts.inPreferredConfig = Bitmap.Config.RGB_565
+        Option(d.decodeRegion(new Rect(tile.left, tile.top, tile.right, tile.bottom), opts))
+      }.recover { case NonFatal(e) =>
+        warn(s"failed to decode $tile", e)
+        None
+      }.toOption.flatten
+      else None
+    }(Dispatcher).foreach { bmp =>
+      loading -= tile
+      bmp.foreach { b =>
+        if (wanted(tile) && decoder.nonEmpty) {
+          tiles += tile -> b
+          onTileLoaded()
+        } else b.recycle()
+      }
+    }(Threading.Ui)
+  }
+
+  private def evict(ts: Set[Tile]): Unit = if (ts.nonEmpty) {
+    ts.foreach(t => tiles.get(t).foreach(_.recycle()))
+    tiles --= ts
+  }
+
+  private def evictAll(): Unit = {
+    wanted = Set.empty
+    evict(tiles.keySet)
+  }
+}
+
+object ImageTiles {
+
+  val TileSize    = 512
+  val MinTileZoom = 1.1f
+
+  // shared by all the pages, so that decoding the tiles of one image never competes with another one
+  private lazy val Dispatcher = new SerialDispatchQueue(name = "ImageTiles")
+
+  case class Bounds(left: Int, top: Int, right: Int, bottom: Int)
+
+  case class Tile(sampleSize: Int, left: Int, top: Int, right: Int, bottom: Int)
+
+  /**
+    * The largest power of two sample size keeping at least one decoded pixel per screen pixel, given the number of
+    * screen pixels per image pixel.
+    */
+  def sampleSize(scale: Float): Int = {
+    var size = 1
+    while (size * 2 * scale <= 1f) size *= 2
+    size
+  }
+
+  /**
+    * The tiles of the given sample size covering the visible part of the image.
+    */
+  def tilesCovering(visible: Bounds, imageDim: Dim2, sampleSize: Int): Set[Tile] = {
+    val step   = TileSize * sampleSize
+    val left   = math.max(visible.left, 0)
+    val top    = math.max(visible.top, 0)
+    val right  = math.min(visible.right, imageDim.width)
+    val bottom = math.min(visible.bottom, imageDim.height)
+
+    if (right <= left || bottom <= top) Set.empty
+    else (for {
+      x <- (left / step) to ((right - 1) / step)
+      y <- (top / step) to ((bottom - 1) / step)
+    } yield Tile(sampleSize, x * step, y * step, math.min((x + 1) * step, imageDim.width), math.min((y + 1) * step, imageDim.height))).toSet
+  }
+}
@@ -18,7 +18,7 @@
 package com.waz.zclient.conversation
 
 import android.content.Context
-import android.graphics.Color
+import android.graphics.{BitmapRegionDecoder, Canvas, Color, Matrix}
 import android.graphics.drawable.ColorDrawable
 import android.support.v4.view.ViewPager.OnPageChangeListener
 import android.support.v4.view.{PagerAdapter, ViewPager}
@@ -28,27 +28,32 @@ import android.view.ViewGroup.LayoutParams
 import android.view.{View, ViewGroup}
 import com.waz.ZLog.ImplicitTag._
 import com.waz.api.MessageFilter
-import com.waz.model.{AssetId, MessageData}
+import com.waz.model.{AssetId, MessageData, MessageId}
 import com.waz.service.ZMessaging
 import com.waz.service.messages.MessageAndLikes
 import com.waz.threading.Threading
-import com.waz.utils.events.{EventContext, EventStream, Signal, SourceSignal}
+import com.waz.utils.events.{EventContext, EventStream, Signal, SourceSignal, Subscription}
+import com.waz.utils.wrappers.AndroidURIUtil
 import com.waz.zclient.collection.controllers.CollectionController
 import com.waz.zclient.collection.controllers.CollectionController.{AllContent, ContentType, Images}
 import com.waz.zclient.messages.RecyclerCursor
 import com.waz.zclient.messages.RecyclerCursor.RecyclerNotifier
 import com.waz.zclient.messages.controllers.MessageActionsController
 import com.waz.zclient.pages.main.conversationpager.CustomPagerTransformer
-import com.waz.zclient.common.views.ImageAssetDrawable
+import com.waz.zclient.common.views.ImageAssetDrawable.RequestBuilder
+import com.waz.zclient.common.views.{ImageAssetDrawable, ImageController}
 import com.waz.zclient.common.views.ImageController.WireImage
 import com.waz.zclient.views.images.TouchImageView
 import com.waz.zclient.{Injectable, Injector, ViewHelper}
 
 import scala.collection.mutable
+import scala.concurrent.Future
 
 class ImageViewPager(context: Context, attrs: AttributeSet) extends ViewPager(context, attrs) with ViewHelper {
   def this(context: Context) = this(context, null)
 
+  setOffscreenPageLimit(ImageViewPager.RetainedPageDistance)
+
   lazy val collectionController = inject[CollectionController]
 
   val messageData = for {
@@ -85,12 +90,38 @@ class ImageViewPager(context: Context, attrs: AttributeSet) extends ViewPager(co
     addOnPageChangeListener(new OnPageChangeListener {
       override def onPageScrollStateChanged(state: Int): Unit = {}
       override def onPageScrolled(position: Int, positionOffset: Float, positionOffsetPixels: Int): Unit = {}
-      override def onPageSelected(position: Int): Unit = collectionController.focusedItem ! adapter.getItem(position)
+      override def onPageSelected(position: Int): Unit = {
+        collectionController.focusedItem ! adapter.getItem(position)
+        adapter.preload(position, pageWidth)
+      }
     })
-    messageData.flatMap(adapter.positionForMessage).on(Threading.Ui) { pos => if (pos >= 0) setCurrentItem(pos, false) }
+    messageData.flatMap(adapter.positionForMessage).on(Threading.Ui) { pos =>
+      if (pos >= 0) {
+        setCurrentItem(pos, false)
+        adapter.preload(pos, pageWidth)
+      }
+    }
     adapter
   }
 
+  // the pager is full screen, so before the first layout its width is the one of the display
+  private def pageWidth = if (getWidth > 0) getWidth else getResources.getDisplayMetrics.widthPixels
+
+  override def onDetachedFromWindow(): Unit = {
+    imageAdapter.foreach {
+      case a: ImageSwipeAdapter => a.releasePreloaded()
+      case _ =>
+    }
+    super.onDetachedFromWindow()
+  }
+
+}
+
+object ImageViewPager {
+  // the pages kept alive on each side of the current one, the ones further away are destroyed
+  val RetainedPageDistance = 1
+  // the images preloaded on each side of the current page, at the size of the pager
+  val PreloadDistance = 2
 }
 
 class SingleImageAdapter(context: Context, val msg: MessageData)(implicit injector: Injector, ev: EventContext) extends PagerAdapter with Injectable { self =>
@@ -114,22 +145,44 @@ class SingleImageAdapter(context: Context, val msg: MessageData)(implicit inject
   }
 }
 
-class ImageSwipeAdapter(context: Context)(implicit injector: Injector, ev: EventContext) extends PagerAdapter with Injectable { self =>
+/**
+  * Pages through the images of the current conversation.
+  *
+  * Pages are tracked by message id, so that cursor updates (e.g. a new image arriving while swiping) only move the
+  * existing pages to their new positions instead of rebuilding them, and only pages whose message was removed are
+  * destroyed. The images of the pages within `preloadDistance` of the current one are loaded at the size of the pager
+  * ahead of time, the others are released.
+  */
+class ImageSwipeAdapter(context: Context, preloadDistance: Int = ImageViewPager.PreloadDistance)(implicit injector: Injector, ev: EventContext) extends PagerAdapter with Injectable { self =>
+  import ImageSwipeAdapter._
 
   private val discardedImages = mutable.Queue[SwipeImageView]()
 
   private val zms = inject[Signal[ZMessaging]]
+  private val images = inject[ImageController]
+
+  private var pages = Map.empty[SwipeImageView, Page]
+  private var preloaded = Map.empty[MessageId, Subscription]
 
   val contentMode = Signal[ContentType](AllContent)
 
   val notifier = new RecyclerNotifier(){
     override def notifyDataSetChanged(): Unit = self.notifyDataSetChanged()
 
-    override def notifyItemRangeInserted(index: Int, length: Int): Unit = self.notifyDataSetChanged()
+    override def notifyItemRangeInserted(index: Int, length: Int): Unit = {
+      movePages(_ >= index, length)
+      self.notifyDataSetChanged()
+    }
 
-    override def notifyItemRangeChanged(index: Int, length: Int): Unit = self.notifyDataSetChanged()
+    override def notifyItemRangeChanged(index: Int, length: Int): Unit =
+      pages.foreach { case (view, Page(id, pos)) =>
+        if (pos >= index && pos < index + length) getItem(pos).filter(_.id == id).foreach(view.setMessageData)
+      }
 
-    override def notifyItemRangeRemoved(pos: Int, count: Int): Unit = self.notifyDataSetChanged()
+    override def notifyItemRangeRemoved(pos: Int, count: Int): Unit = {
+      movePages(_ >= pos + count, -count)
+      self.notifyDataSetChanged()
+    }
   }
 
   var recyclerCursor: Option[RecyclerCursor] = None
@@ -159,12 +212,36 @@ class ImageSwipeAdapter(context: Context)(implicit injector: Injector, ev: Event
     case _ => None
   }
 
+  /**
+    * Loads the images around the given page at the given width (the one of the pages), and releases the others.
+    */
+  def preload(position: Int, width: Int): Unit = if (width > 0) {
+    val msgs = ((position - preloadDistance) to (position + preloadDistance))
+      .filter(p => p != position && p >= 0 && p < getCount)
+      .flatMap(getItem)
+      .filterNot(_.isEphemeral)
+
+    val ids = msgs.map(_.id).toSet
+    preloaded.foreach { case (id, sub) => if (!ids(id)) sub.destroy() }
+    preloaded = preloaded.filterKeys(ids).toMap
+    msgs.filterNot(m => preloaded.contains(m.id)).foreach { m =>
+      preloaded += m.id -> images.imageSignal(WireImage(m.assetId), RequestBuilder.Regular(width), forceDownload = true).on(Threading.Background)(_ => ())
+    }
+  }
+
+  def releasePreloaded(): Unit = {
+    preloaded.values.foreach(_.destroy())
+    preloaded = Map.empty
+  }
+
   override def instantiateItem(container: ViewGroup, position: Int): AnyRef = {
     val imageView = if (discardedImages.nonEmpty) discardedImages.dequeue() else new SwipeImageView(context)
     imageView.setLayoutParams(new LayoutParams(LayoutParams.MATCH_PARENT, LayoutParams.MATCH_PARENT))
     imageView.setImageDrawable(new ColorDrawable(Color.TRANSPARENT))
-    getItem(position).foreach { messageData => imageView.setMessageData(messageData) }
-    imageView.setTag(position)
+    getItem(position).foreach { messageData =>
+      imageView.setMessageData(messageData)
+      pages += imageView -> Page(messageData.id, position)
+    }
     container.addView(imageView)
     imageView
   }
@@ -172,13 +249,30 @@ class ImageSwipeAdapter(context: Context)(implicit injector: Injector, ev: Event
   override def destroyItem(container: ViewGroup, position: Int, obj: scala.Any): Unit = {
     val view = obj.asInstanceOf[SwipeImageView]
     view.resetZoom()
+    pages -= view
     discardedImages.enqueue(view)
     container.removeView(view)
   }
 
-  override def isViewFromObject(view: View, obj: scala.Any): Boolean = view.getTag.equals(obj.asInstanceOf[View].getTag)
+  override def getItemPosition(obj: scala.Any): Int = obj match {
+    case view: SwipeImageView =>
+      pages.get(view) match {
+        case Some(Page(id, pos)) if getItem(pos).exists(_.id == id) => pos
+        case _ => PagerAdapter.POSITION_NONE
+      }
+    case _ => PagerAdapter.POSITION_NONE
+  }
+
+  override def isViewFromObject(view: View, obj: scala.Any): Boolean = view eq obj.asInstanceOf[AnyRef]
 
   override def getCount: Int = recyclerCursor.fold(0)(_.count)
+
+  private def movePages(moved: Int => Boolean, offset: Int): Unit =
+    pages = pages.map { case (view, page) => view -> (if (moved(page.position)) page.copy(position = page.position + offset) else page) }
+}
+
+object ImageSwipeAdapter {
+  case class Page(id: MessageId, position: Int)
 }
 
 class SwipeImageView(context: Context, attrs: AttributeSet, style: Int) extends TouchImageView(context, attrs, style) with ViewHelper {
@@ -198,8 +292,16 @@ class SwipeImageView(context: Context, attrs: AttributeSet, style: Int) extends
 
   messageAndLikes.disableAutowiring()
 
+  private var tiles = Option.empty[ImageTiles]
+  private val imageToView = new Matrix
+
   messageData.on(Threading.Ui){
-    md => setAsset(md.assetId)
+    md =>
+      setAsset(md.assetId)
+      tiles.foreach(_.release())
+      tiles = md.imageDimensions.filter(d => d.width > 0 && d.height > 0).map { dim =>
+        new ImageTiles(dim, () => openRegionDecoder(md.assetId), () => invalidate())
+      }
   }
 
   onLayoutChanged.on(Threading.Ui){
@@ -218,6 +320,38 @@ class SwipeImageView(context: Context, attrs: AttributeSet, style: Int) extends
     setImageDrawable(assetDrawable)
   }
 
+  private def openRegionDecoder(assetId: AssetId): Future[Option[BitmapRegionDecoder]] = {
+    import Threading.Implicits.Background
+    zms.head.flatMap(_.assets.getContentUri(assetId)).map(_.flatMap { uri =>
+      val in = getContext.getContentResolver.openInputStream(AndroidURIUtil.unwrap(uri))
+      try Option(BitmapRegionDecoder.newInstance(in, false))
+      finally in.close()
+    })
+  }
+
+  override def onDraw(canvas: Canvas): Unit = {
+    super.onDraw(canvas)
+    for {
+      t        <- tiles
+      drawable <- Option(getDrawable)
+      dim      <- messageData.currentValue.flatMap(_.imageDimensions)
+    } {
+      // the drawable fits the image in its bounds (`CenterInside`), and is then zoomed and panned with the image matrix
+      val b = drawable.getBounds
+      val scale = math.min(b.width.toFloat / dim.width, b.height.toFloat / dim.height)
+      imageToView.setScale(scale, scale)
+      imageToView.postTranslate(b.left + (b.width - dim.width * scale) / 2, b.top + (b.height - dim.height * scale) / 2)
+      imageToView.postConcat(getImageMatrix)
+      imageToView.postTranslate(getPaddingLeft, getPaddingTop)
+      t.draw(canvas, imageToView, getCurrentZoom, getWidth, getHeight)
+    }
+  }
+
+  override def onDetachedFromWindow(): Unit = {
+    tiles.foreach(_.release())
+    super.onDetachedFromWindow()
+  }
+
   override def onLayout(changed: Boolean, left: Int, top: Int, right: Int, bottom: Int): Unit = {
     super.onLayout(changed, left, top, right, bottom)
     onLayoutChanged ! (())
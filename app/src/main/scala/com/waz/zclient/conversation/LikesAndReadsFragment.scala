@@ -36,7 +36,8 @@ import com.waz.zclient.common.controllers.ScreenController.MessageDetailsParams
 import com.waz.zclient.common.controllers.ScreenController
 import com.waz.zclient.messages.LikesController
 import com.waz.zclient.pages.main.conversation.ConversationManagerFragment
-import com.waz.zclient.paintcode.{GenericStyleKitView, WireStyleKit}
+import com.waz.zclient.paintcode.GenericStyleKitView
+import com.waz.zclient.paintcode.WireDrawable.Icons
 import com.waz.zclient.participants.ParticipantsAdapter
 import com.waz.zclient.ui.text.{GlyphTextView, TypefaceTextView}
 import com.waz.zclient.utils.ContextUtils.getColor
@@ -123,15 +124,15 @@ class LikesAndReadsFragment extends FragmentHelper {
     Signal(viewToDisplay, detailsCombination).onUi {
       case (NoReads, JustReads | ReadsAndLikes) =>
         vh.foreach(_.setVisible(true))
-        emptyListIcon.setOnDraw(WireStyleKit.drawView)
+        emptyListIcon.setOnDraw(Icons.View)
         emptyListText.setText(R.string.messages_no_reads)
       case (ReadsOff, JustReads | ReadsAndLikes) =>
         vh.foreach(_.setVisible(true))
-        emptyListIcon.setOnDraw(WireStyleKit.drawView)
+        emptyListIcon.setOnDraw(Icons.View)
         emptyListText.setText(R.string.messages_reads_turned_off)
       case (NoLikes, JustLikes | ReadsAndLikes) =>
         vh.foreach(_.setVisible(true))
-        emptyListIcon.setOnDraw(WireStyleKit.drawLike)
+        emptyListIcon.setOnDraw(Icons.Like)
         emptyListText.setText(R.string.messages_no_likes)
       case _ =>
         vh.foreach(_.setVisible(false))
@@ -188,10 +189,15 @@ class LikesAndReadsFragment extends FragmentHelper {
     }
   }
 
-  private var readTimestamps = Map.empty[UserId, RemoteInstant]
+  private lazy val readTimestamps = for {
+    receipts        <- readReceiptsStorage
+    Some(msgParams) <- screenController.showMessageDetails
+    rs              <- receipts.receipts(msgParams.messageId)
+  } yield rs.map(r => r.user -> r.timestamp).toMap
 
-  private def createSubtitle(user: UserData): String =
-    readTimestamps.get(user.id).fold("")(time => SameDayTimeStamp(time.instant).string)
+  private lazy val readSubtitle = readTimestamps.map { timestamps =>
+    (user: UserData) => timestamps.get(user.id).fold("")(time => SameDayTimeStamp(time.instant).string)
+  }
 
   override def onCreateView(inflater: LayoutInflater, viewGroup: ViewGroup, savedInstanceState: Bundle): View =
     inflater.inflate(R.layout.fragment_likes_and_reads, viewGroup, false)
@@ -209,7 +215,7 @@ class LikesAndReadsFragment extends FragmentHelper {
 
    readsView.foreach { rv =>
       rv.setLayoutManager(new LinearLayoutManager(getContext))
-      rv.setAdapter(new ParticipantsAdapter(reads, createSubtitle = Some(createSubtitle), showPeopleOnly = true, showArrow = false))
+      rv.setAdapter(new ParticipantsAdapter(reads, createSubtitle = Some(readSubtitle), showPeopleOnly = true, showArrow = false))
     }
 
     likesView.foreach { rv =>
@@ -239,14 +245,6 @@ class LikesAndReadsFragment extends FragmentHelper {
     closeButton.foreach(_.setOnClickListener(new OnClickListener {
       def onClick(v: View): Unit = onBackPressed()
     }))
-
-    (for {
-      receipts        <- readReceiptsStorage
-      Some(msgParams) <- screenController.showMessageDetails
-      rs              <- receipts.receipts(msgParams.messageId)
-    } yield rs.map(r => r.user -> r.timestamp).toMap).onUi {
-      readTimestamps = _
-    }
   }
 
   override def onBackPressed(): Boolean = Option(getParentFragment) match {
@@ -31,7 +31,7 @@ import com.waz.zclient.common.views.ImageAssetDrawable.{RequestBuilder, ScaleTyp
 import com.waz.zclient.common.views.ImageController.WireImage
 import com.waz.zclient.common.views.RoundedImageAssetDrawable
 import com.waz.zclient.conversation.ReplyView.ReplyBackgroundDrawable
-import com.waz.zclient.paintcode.WireStyleKit
+import com.waz.zclient.paintcode.WireDrawable.Icons
 import com.waz.zclient.paintcode.WireStyleKit.ResizingBehavior
 import com.waz.zclient.ui.text.LinkTextView
 import com.waz.zclient.ui.utils.TypefaceUtils
@@ -67,15 +67,15 @@ class ReplyView(context: Context, attrs: AttributeSet, defStyle: Int) extends Fr
       case Type.TEXT | Type.TEXT_EMOJI_ONLY | Type.RICH_MEDIA =>
         set(messageData.contentString, bold = false, None, None)
       case Type.LOCATION =>
-        set(messageData.location.map(_.getName).getOrElse(getString(R.string.reply_message_type_location)), bold = true, Some(WireStyleKit.drawLocation), None)
+        set(messageData.location.map(_.getName).getOrElse(getString(R.string.reply_message_type_location)), bold = true, Some(Icons.Location), None)
       case Type.VIDEO_ASSET =>
-        set(getString(R.string.reply_message_type_video), bold = true, Some(WireStyleKit.drawVideocall), Some(messageData.assetId))
+        set(getString(R.string.reply_message_type_video), bold = true, Some(Icons.Videocall), Some(messageData.assetId))
       case Type.ASSET =>
-        set(getString(R.string.reply_message_type_image), bold = true, Some(WireStyleKit.drawImage), Some(messageData.assetId))
+        set(getString(R.string.reply_message_type_image), bold = true, Some(Icons.Image), Some(messageData.assetId))
       case Type.AUDIO_ASSET =>
-        set(getString(R.string.reply_message_type_audio), bold = true, Some(WireStyleKit.drawVoiceMemo), None)
+        set(getString(R.string.reply_message_type_audio), bold = true, Some(Icons.VoiceMemo), None)
       case Type.ANY_ASSET =>
-        set(assetData.flatMap(_.name).getOrElse(getString(R.string.reply_message_type_asset)), bold = true, Some(WireStyleKit.drawFile), None)
+        set(assetData.flatMap(_.name).getOrElse(getString(R.string.reply_message_type_asset)), bold = true, Some(Icons.File), None)
       case _ =>
       // Other types shouldn't be able to be replied to
     }
@@ -83,7 +83,7 @@ class ReplyView(context: Context, attrs: AttributeSet, defStyle: Int) extends Fr
 
   private def setSender(name: String, edited: Boolean): Unit = {
     senderText.setText(name)
-    senderText.setEndCompoundDrawable(if (edited) Some(WireStyleKit.drawEdit) else None, getStyledColor(R.attr.wirePrimaryTextColor))
+    senderText.setEndCompoundDrawable(if (edited) Some(Icons.Edit) else None, getStyledColor(R.attr.wirePrimaryTextColor))
   }
 
   private def set(text: String, bold: Boolean, drawMethod: Option[(Canvas, RectF, ResizingBehavior, Int) => Unit], imageAsset: Option[AssetId]): Unit = {
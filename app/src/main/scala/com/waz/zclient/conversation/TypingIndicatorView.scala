@@ -17,18 +17,22 @@
  */
 package com.waz.zclient.conversation
 
+import android.animation.ValueAnimator
+import android.animation.ValueAnimator.AnimatorUpdateListener
 import android.content.Context
-import android.os.Handler
 import android.util.AttributeSet
 import android.view.View
+import android.view.animation.LinearInterpolator
 import android.widget.{FrameLayout, TextView}
+import com.waz.model.UserId
 import com.waz.service.ZMessaging
 import com.waz.utils.events.Signal
+import com.waz.zclient.conversation.TypingIndicatorView._
 import com.waz.zclient.utils.ContextUtils._
-
-
 import com.waz.zclient.{R, ViewHelper}
 
+import scala.concurrent.duration._
+
 class TypingIndicatorView(val context: Context, val attrs: AttributeSet, val defStyleAttr: Int)
   extends FrameLayout(context, attrs, defStyleAttr) with ViewHelper {
   def this(context: Context, attrs: AttributeSet) = this(context, attrs, 0)
@@ -44,25 +48,36 @@ class TypingIndicatorView(val context: Context, val attrs: AttributeSet, val def
   private val penView = findById[View](R.id.gtv__is_typing_pen)
   private val topBackground = findById[View](R.id.top_background)
 
-  private var animationRunning: Boolean = false
-  private val handler = new Handler
+  private val shown = Signal(false)
 
-  lazy val typingUsers = for {
-    z <- zms
+  // the name signals of the users currently typing, so that only the ones joining the typing set have to be resolved
+  private var nameSignals = Map.empty[UserId, Signal[String]]
+
+  // typing state can flip several times a second in busy groups, the view is updated at a bounded rate instead
+  lazy val typingUserIds = (for {
+    z      <- zms
     convId <- convController.currentConvId
-    userIds <- z.typing.typingUsers(convId)
-    users <- z.usersStorage.listSignal(userIds.filterNot(_ == z.selfUserId))
-  } yield users
-
-  typingUsers.onUi { users =>
-    if (users.isEmpty) {
-      nameTextView.setText("")
-      setVisibility(View.GONE)
-      endAnimation()
-    } else {
-      nameTextView.setText(users.map(_.getDisplayName).mkString(", "))
-      setVisibility(View.VISIBLE)
-      startAnimation()
+    ids    <- z.typing.typingUsers(convId)
+  } yield ids.filterNot(_ == z.selfUserId).distinct).throttle(TypingUpdateInterval)
+
+  lazy val typingNames = typingUserIds.flatMap { ids =>
+    nameSignals = ids.map(id => id -> nameSignals.getOrElse(id, zms.flatMap(_.usersStorage.signal(id)).map(_.getDisplayName))).toMap
+    Signal.sequence(ids.map(nameSignals): _*).map(_.mkString(", "))
+  }
+
+  typingNames.onUi { names =>
+    nameTextView.setText(names)
+    setVisibility(if (names.isEmpty) View.GONE else View.VISIBLE)
+  }
+
+  (for {
+    typing <- typingUserIds.map(_.nonEmpty)
+    shown  <- shown
+  } yield typing && shown).onUi { animate =>
+    if (animate && !penAnimator.isStarted) penAnimator.start()
+    else if (!animate && penAnimator.isStarted) {
+      penAnimator.cancel()
+      penView.setTranslationX(0)
     }
   }
 
@@ -71,41 +86,62 @@ class TypingIndicatorView(val context: Context, val attrs: AttributeSet, val def
     else getStyledColor(R.attr.wireBackgroundCollection)
   }.onUi(topBackground.setBackgroundColor)
 
-  private def startAnimation() =
-    if(!animationRunning) {
-      animationRunning = true
-      runAnimation()
-    }
-
-  private def runAnimation(): Unit =
-    if (animationRunning) {
-      val stepDuration = getResources.getInteger(R.integer.animation_duration_medium_rare)
-      val step1 = dotsView.getWidth / 3
-      val step2 = step1 * 2
-      val step3 = dotsView.getWidth
-
-      def animateStep(step: Int) =
-        penView.animate().translationX(step).setDuration(stepDuration).start()
+  // one looping animator for the pen, the offsets are relative to the width of the dots so that it follows the layout
+  private lazy val penAnimator = {
+    val anim = ValueAnimator.ofFloat(0, 1)
+    anim.setDuration(getResources.getInteger(R.integer.animation_duration_medium_rare) * PenCycleSteps)
+    anim.setInterpolator(new LinearInterpolator)
+    anim.setRepeatCount(ValueAnimator.INFINITE)
+    anim.addUpdateListener(new AnimatorUpdateListener {
+      override def onAnimationUpdate(animation: ValueAnimator): Unit =
+        penView.setTranslationX(penOffset(animation.getAnimatedFraction) * dotsView.getWidth)
+    })
+    anim
+  }
 
-      def getRunnable(step: Int) = new Runnable {
-        override def run(): Unit = animateStep(step)
-      }
+  override def onAttachedToWindow(): Unit = {
+    super.onAttachedToWindow()
+    shown ! isShown
+  }
 
-      animateStep(step1)
-      handler.postDelayed(getRunnable(step2), stepDuration * 2)
+  override def onDetachedFromWindow(): Unit = {
+    shown ! false
+    super.onDetachedFromWindow()
+  }
 
-      handler.postDelayed(getRunnable(step3), stepDuration * 4)
+  override def onVisibilityChanged(changedView: View, visibility: Int): Unit = {
+    super.onVisibilityChanged(changedView, visibility)
+    shown ! isShown
+  }
 
-      handler.postDelayed(new Runnable() {
-        override def run(): Unit = {
-          runAnimation()
-        }
-      }, stepDuration * 8)
-    }
+  override def onWindowVisibilityChanged(visibility: Int): Unit = {
+    super.onWindowVisibilityChanged(visibility)
+    shown ! (visibility == View.VISIBLE && isShown)
+  }
+}
 
-  private def endAnimation() =
-    if (animationRunning) {
-      handler.removeCallbacksAndMessages(null)
-      animationRunning = false
+object TypingIndicatorView {
+
+  val TypingUpdateInterval = 500.millis
+
+  val PenCycleSteps = 8
+
+  /**
+    * The pen position, as a fraction of the dots width, at the given point of the animation cycle. The cycle is split
+    * into `PenCycleSteps` steps: the pen moves on by a third of the dots every other step until it reaches their end,
+    * stays there and moves back to the start in the last step.
+    */
+  def penOffset(fraction: Float): Float = {
+    val step = fraction * PenCycleSteps
+    val progress = step - step.toInt
+    step.toInt match {
+      case 0     => progress / 3
+      case 1     => 1f / 3
+      case 2     => (1 + progress) / 3
+      case 3     => 2f / 3
+      case 4     => (2 + progress) / 3
+      case 5 | 6 => 1f
+      case _     => math.max(0f, PenCycleSteps - step)
     }
+  }
 }
@@ -24,7 +24,8 @@ import android.view.View.OnClickListener
 import android.widget.FrameLayout
 import com.waz.utils.events.EventStream
 import com.waz.zclient.conversationlist.views.ConversationBadge.{Status, _}
-import com.waz.zclient.paintcode.{GenericStyleKitView, WireStyleKit}
+import com.waz.zclient.paintcode.GenericStyleKitView
+import com.waz.zclient.paintcode.WireDrawable.Icons
 import com.waz.zclient.ui.text.{GlyphTextView, TypefaceTextView}
 import com.waz.zclient.utils.ContextUtils._
 import com.waz.zclient.{R, ViewHelper}
@@ -145,10 +146,9 @@ class ConversationBadgeStyleKitView(context: Context, attrs: AttributeSet, style
 
   def setStatus(status: Status): Unit = {
     status match {
-      case Mention => setOnDraw(WireStyleKit.drawMentions)
-      case Quote   => setOnDraw(WireStyleKit.drawReply)
+      case Mention => setOnDraw(Icons.Mentions)
+      case Quote   => setOnDraw(Icons.Reply)
       case _ =>
     }
   }
 }
-
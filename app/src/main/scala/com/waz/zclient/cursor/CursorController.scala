@@ -20,6 +20,7 @@ package com.waz.zclient.cursor
 import android.Manifest.permission.{CAMERA, READ_EXTERNAL_STORAGE, RECORD_AUDIO}
 import android.app.Activity
 import android.content.Context
+import android.os.SystemClock
 import android.text.TextUtils
 import android.view.{MotionEvent, View}
 import android.widget.Toast
@@ -128,16 +129,22 @@ class CursorController(implicit inj: Injector, ctx: Context, evc: EventContext)
       // ignore
   }
 
-  // notify SE about typing state
+  // notify SE about typing state - while the text keeps changing, at most once per TypingNotificationInterval
+  private val typingTarget = Signal(zms.map(_.typing), conversationController.currentConvId).disableAutowiring()
   private var prevEnteredText = ""
+  private var lastTypingNotification = Option.empty[(ConvId, Long)]
+
   enteredText {
     case (CursorText(text, _), EnteredTextSource.FromView) if text != prevEnteredText =>
-      for {
-        typing <- zms.map(_.typing).head
-        convId <- conversationController.currentConvId.head
-      } {
-        if (!text.isEmpty) typing.selfChangedInput(convId)
-        else typing.selfClearedInput(convId)
+      typingTarget.currentValue.fold(typingTarget.head)(Future.successful).foreach { case (typing, convId) =>
+        val now = SystemClock.elapsedRealtime()
+        if (text.isEmpty) {
+          typing.selfClearedInput(convId)
+          lastTypingNotification = None
+        } else if (!lastTypingNotification.exists { case (c, time) => c == convId && now - time < TypingNotificationInterval.toMillis }) {
+          typing.selfChangedInput(convId)
+          lastTypingNotification = Some((convId, now))
+        }
       }
       prevEnteredText = text
     case _ =>
@@ -318,6 +325,8 @@ class CursorController(implicit inj: Injector, ctx: Context, evc: EventContext)
 }
 
 object CursorController {
+  val TypingNotificationInterval = 1.second
+
   sealed trait EnteredTextSource
   object EnteredTextSource {
     case object FromView extends EnteredTextSource
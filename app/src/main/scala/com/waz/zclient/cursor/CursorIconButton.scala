@@ -46,7 +46,8 @@ import com.waz.threading.Threading
 import com.waz.utils.events.Signal
 import com.waz.zclient.common.controllers.ThemeController
 import com.waz.zclient.paintcode.StyleKitView.StyleKitDrawMethod
-import com.waz.zclient.paintcode.{GenericStyleKitView, StyleKitView, WireStyleKit}
+import com.waz.zclient.paintcode.WireDrawable.Icons
+import com.waz.zclient.paintcode.{GenericStyleKitView, StyleKitView}
 import com.waz.zclient.ui.theme.ThemeUtils
 import com.waz.zclient.ui.utils.ColorUtils
 import com.waz.zclient.ui.views.FilledCircularBackgroundDrawable
@@ -148,20 +149,20 @@ class CursorIconButton(context: Context, attrs: AttributeSet, defStyleAttr: Int)
     selected.onUi(setSelected)
     buttonColor.onUi(setColor)
     itemId.map[StyleKitDrawMethod]{
-      case R.id.cursor_menu_item_video =>         WireStyleKit.drawVideoMessage
-      case R.id.cursor_menu_item_camera =>        WireStyleKit.drawCamera
-      case R.id.cursor_menu_item_draw =>          WireStyleKit.drawSketch
-      case R.id.cursor_menu_item_ping =>          WireStyleKit.drawPing
-      case R.id.cursor_menu_item_location =>      WireStyleKit.drawLocation
-      case R.id.cursor_menu_item_emoji =>         WireStyleKit.drawEmoji
-      case R.id.cursor_menu_item_keyboard =>      WireStyleKit.drawText
-      case R.id.cursor_menu_item_file =>          WireStyleKit.drawAttachement
-      case R.id.cursor_menu_item_gif =>           WireStyleKit.drawGIF
-      case R.id.cursor_menu_item_audio_message => WireStyleKit.drawVoiceMemo
-      case R.id.cursor_menu_item_more =>          WireStyleKit.drawMore
-      case R.id.cursor_menu_item_less =>          WireStyleKit.drawMore
-      case R.id.cursor_menu_item_send =>          WireStyleKit.drawSend
-      case R.id.cursor_menu_item_mention =>       WireStyleKit.drawMentions
+      case R.id.cursor_menu_item_video =>         Icons.VideoMessage
+      case R.id.cursor_menu_item_camera =>        Icons.Camera
+      case R.id.cursor_menu_item_draw =>          Icons.Sketch
+      case R.id.cursor_menu_item_ping =>          Icons.Ping
+      case R.id.cursor_menu_item_location =>      Icons.Location
+      case R.id.cursor_menu_item_emoji =>         Icons.Emoji
+      case R.id.cursor_menu_item_keyboard =>      Icons.Text
+      case R.id.cursor_menu_item_file =>          Icons.Attachement
+      case R.id.cursor_menu_item_gif =>           Icons.GIF
+      case R.id.cursor_menu_item_audio_message => Icons.VoiceMemo
+      case R.id.cursor_menu_item_more =>          Icons.More
+      case R.id.cursor_menu_item_less =>          Icons.More
+      case R.id.cursor_menu_item_send =>          Icons.Send
+      case R.id.cursor_menu_item_mention =>       Icons.Mentions
       case _ =>                                   StyleKitView.NoDraw
     }.onUi { f =>
       setOnDraw(f)
@@ -23,34 +23,84 @@ import android.text.style._
 import com.waz.model.{Mention, UserId}
 import com.waz.utils.returning
 
-import scala.util.matching.Regex
-
 case class CursorText(text: String, mentions: Seq[Mention]) {
-  def isEmpty: Boolean = mentions.isEmpty && text.trim.isEmpty
+  def isEmpty: Boolean = mentions.isEmpty && MentionUtils.isBlank(text)
 }
 
 object CursorText {
   val Empty: CursorText = CursorText("", Nil)
+
+  /**
+    * The message text of the cursor's content, where each mention span is replaced with the name it stands for.
+    */
+  def fromEditable(editable: Spanned): CursorText = fromSpans(editable.toString, CursorMentionSpan.getMentionSpans(editable))
+
+  /**
+    * @param display the text as displayed by the cursor, with a placeholder char for each mention
+    * @param spans the mention spans with their start and end positions in the displayed text
+    */
+  def fromSpans(display: String, spans: Seq[(CursorMentionSpan, Int, Int)]): CursorText =
+    if (spans.isEmpty) CursorText(display, Nil)
+    else {
+      val text = new java.lang.StringBuilder(display.length + spans.map(_._1.text.length).sum)
+      val mentions = Seq.newBuilder[Mention]
+      val end = spans.sortBy(_._2).foldLeft(0) { case (from, (span, s, e)) =>
+        text.append(display, from, s)
+        mentions += Mention(Some(span.userId), text.length, span.text.length)
+        text.append(span.text)
+        e
+      }
+      text.append(display, end, display.length)
+      CursorText(text.toString, mentions.result())
+    }
 }
 
 object MentionUtils {
-  val MentionRegex: Regex = """([\s\n\r\t\n]|^)(@[\S]*)([\s\n\r\t\n]|$)""".r
 
-  def mentionMatch(text: String, selection: Int): Option[Regex.Match] =
-    MentionRegex.findAllMatchIn(text).toSeq.find { m =>
-      selection > m.start(2) && selection <= m.end(2)
+  /**
+    * A mention being typed: an '@' at the start of a word, followed by the (possibly empty) query.
+    * @param start the position of the '@'
+    * @param end the end of the word
+    */
+  case class MentionMatch(start: Int, end: Int, query: String)
+
+  /**
+    * Looks for a mention in the word around the selection - only the word itself is scanned, not the whole text, as
+    * this runs on every keystroke and selection change.
+    */
+  def mentionMatch(text: String, selection: Int): Option[MentionMatch] =
+    if (selection <= 0 || selection > text.length) None
+    else {
+      var start = selection
+      while (start > 0 && !isSpace(text.charAt(start - 1))) start -= 1
+      if (start == selection || text.charAt(start) != '@') None
+      else {
+        var end = selection
+        while (end < text.length && !isSpace(text.charAt(end))) end += 1
+        Some(MentionMatch(start, end, text.substring(start + 1, end)))
+      }
     }
 
   def mentionQuery(text: String, selection: Int): Option[String] =
-    mentionMatch(text, selection).map(_.group(2).substring(1))
+    mentionMatch(text, selection).map(_.query)
 
   case class Replacement(start: Int, end: Int, text: String)
 
   def getMention(text: String, selectionIndex: Int, userId: UserId, name: String): Option[(Mention, Replacement)] = mentionMatch(text, selectionIndex).map { m =>
     val atName = s"@$name".replace(" ", "\u00A0")
-    val mention = Mention(Some(userId), m.start(2), atName.length)
-    (mention, Replacement(m.start(2), m.end(2), atName))
+    val mention = Mention(Some(userId), m.start, atName.length)
+    (mention, Replacement(m.start, m.end, atName))
   }
+
+  // same as `text.trim.isEmpty`, without the copy
+  def isBlank(text: String): Boolean = {
+    var i = 0
+    while (i < text.length && text.charAt(i) <= ' ') i += 1
+    i == text.length
+  }
+
+  // the whitespace chars of regular expressions (`\s`), which don't include the no-break spaces of the mention names
+  private def isSpace(c: Char) = c == ' ' || c == '\t' || c == '\n' || c == '\r' || c == '\f' || c == '\u000B'
 }
 
 case class CursorMentionSpan(userId: UserId, text: String, color: Int) extends ReplacementSpan {
@@ -75,7 +125,7 @@ object CursorMentionSpan {
 
   val PlaceholderChar: String = "\u00A0"
 
-  def getMentionSpans(spannable: Spannable): Seq[(CursorMentionSpan, Int, Int)] = {
+  def getMentionSpans(spannable: Spanned): Seq[(CursorMentionSpan, Int, Int)] = {
     spannable.getSpans(0, spannable.length(), classOf[CursorMentionSpan]).map { s =>
       (s, spannable.getSpanStart(s), spannable.getSpanEnd(s))
     }
@@ -30,7 +30,7 @@ import android.widget.TextView.OnEditorActionListener
 import android.widget.{EditText, LinearLayout, TextView}
 import com.waz.ZLog.ImplicitTag._
 import com.waz.model._
-import com.waz.service.UserSearchService
+import com.waz.service.ZMessaging
 import com.waz.threading.Threading
 import com.waz.utils.events.{Signal, SourceSignal}
 import com.waz.utils.returning
@@ -123,27 +123,29 @@ class CursorView(val context: Context, val attrs: AttributeSet, val defStyleAttr
   private val cursorText: SourceSignal[String] = Signal(cursorEditText.getEditableText.toString)
   private val cursorSelection: SourceSignal[(Int, Int)] = Signal((cursorEditText.getSelectionStart, cursorEditText.getSelectionEnd))
 
-  val mentionQuery = Signal(cursorText, cursorSelection).collect {
-    case (text, (_, sEnd)) if sEnd <= text.length => MentionUtils.mentionQuery(text, sEnd)
+  // computed once per text or selection change, the signals below are only notified if the match itself changes
+  private val mentionMatch = Signal(cursorText, cursorSelection).collect {
+    case (text, (_, sEnd)) if sEnd <= text.length => (MentionUtils.mentionMatch(text, sEnd), sEnd)
   }
-  val selectionHasMention = Signal(cursorText, cursorSelection).collect {
-    case (text, (_, sEnd)) if sEnd <= text.length =>
-      MentionUtils.mentionMatch(text, sEnd).exists { m =>
-        CursorMentionSpan.hasMentionSpan(cursorEditText.getEditableText, m.start, sEnd)
-      }
+  val mentionQuery = mentionMatch.map(_._1.map(_.query))
+  val selectionHasMention = mentionMatch.map {
+    case (m, sEnd) => m.exists(m => CursorMentionSpan.hasMentionSpan(cursorEditText.getEditableText, m.start, sEnd))
   }
   val cursorSingleSelection = cursorSelection.map(s => s._1 == s._2)
-  val mentionSearchResults = for {
-    searchService <- inject[Signal[UserSearchService]]
-    convId <- inject[ConversationController].currentConvId
-    query <- mentionQuery
-    selectionHasMention <- selectionHasMention
-    selectionSingle <- cursorSingleSelection
-    results <- if (selectionHasMention || !selectionSingle)
-      Signal.const(IndexedSeq.empty[UserData])
-    else
-      searchService.mentionsSearchUsersInConversation(convId, query.getOrElse(""), includeSelf = false)
-  } yield results.reverse
+  // built when the cursor opens, and whenever the members of the conversation (or their names) change
+  private val mentionCandidates = for {
+    z       <- inject[Signal[ZMessaging]]
+    convId  <- inject[ConversationController].currentConvId
+    members <- z.membersStorage.activeMembers(convId)
+    users   <- z.usersStorage.listSignal((members - z.selfUserId).toSeq)
+    index   <- Signal.future(MentionCandidatesIndex.build(users))
+  } yield index
+
+  // the inputs only change with the mention query, so moving the caret within the same query doesn't search again
+  val mentionSearchResults = Signal(mentionCandidates, mentionQuery, selectionHasMention, cursorSingleSelection).flatMap {
+    case (index, Some(query), false, true) => Signal.future(index.search(query))
+    case _                                 => Signal.const(IndexedSeq.empty[UserData])
+  }.map(_.reverse) // the best match last, right above the cursor
 
   def createMention(userId: UserId, name: String, editText: EditText, selectionIndex: Int, accentColor: Int): Unit = {
     val editable = editText.getEditableText
@@ -194,16 +196,18 @@ class CursorView(val context: Context, val attrs: AttributeSet, val defStyleAttr
   cursorEditText.addTextChangedListener(new TextWatcher() {
 
     override def beforeTextChanged(charSequence: CharSequence, start: Int, count: Int, after: Int): Unit = {
+      // the watcher spans the whole text and grows with it, it only has to be set again on a new editable
       val editable = cursorEditText.getEditableText
-      editable.removeSpan(cursorSpanWatcher)
-      editable.setSpan(cursorSpanWatcher, 0, editable.length(), Spanned.SPAN_INCLUSIVE_INCLUSIVE)
+      if (editable.getSpanStart(cursorSpanWatcher) < 0)
+        editable.setSpan(cursorSpanWatcher, 0, editable.length(), Spanned.SPAN_INCLUSIVE_INCLUSIVE)
     }
 
     override def onTextChanged(charSequence: CharSequence, start: Int, before: Int, count: Int): Unit = {
-      val text = charSequence.toString
-      controller.enteredText ! (getText, EnteredTextSource.FromView)
-      if (text.trim.nonEmpty) lineCount ! Math.max(cursorEditText.getLineCount, 1)
-      cursorText ! charSequence.toString
+      val editable = cursorEditText.getEditableText
+      val text = editable.toString
+      controller.enteredText ! (CursorText.fromSpans(text, CursorMentionSpan.getMentionSpans(editable)), EnteredTextSource.FromView)
+      if (!MentionUtils.isBlank(text)) lineCount ! Math.max(cursorEditText.getLineCount, 1)
+      cursorText ! text
     }
 
     override def afterTextChanged(editable: Editable): Unit = {}
@@ -381,22 +385,7 @@ class CursorView(val context: Context, val attrs: AttributeSet, val defStyleAttr
 
   def hasText: Boolean = !TextUtils.isEmpty(cursorEditText.getText.toString)
 
-  def getText: CursorText = {
-    var offset = 0
-    var cursorText = cursorEditText.getEditableText.toString
-    var mentions = Seq.empty[Mention]
-    CursorMentionSpan.getMentionSpans(cursorEditText.getEditableText).sortBy(_._2).foreach {
-      case (span, s, e) =>
-        val spanLength = e - s
-        val mentionLength = span.text.length
-
-        cursorText = cursorText.substring(0, s + offset) + span.text + cursorText.substring(e + offset)
-        mentions = mentions :+ Mention(Some(span.userId), s + offset, mentionLength)
-
-        offset = offset + mentionLength - spanLength
-    }
-    CursorText(cursorText, mentions)
-  }
+  def getText: CursorText = CursorText.fromEditable(cursorEditText.getEditableText)
 
   def setConversation(): Unit = {
     enableMessageWriting()
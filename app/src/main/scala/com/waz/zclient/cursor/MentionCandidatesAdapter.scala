@@ -17,6 +17,7 @@
  */
 package com.waz.zclient.cursor
 
+import android.support.v7.util.DiffUtil
 import android.support.v7.widget.RecyclerView
 import android.view.View.OnClickListener
 import android.view.{LayoutInflater, View, ViewGroup}
@@ -26,7 +27,7 @@ import com.waz.zclient.R
 import com.waz.zclient.common.controllers.ThemeController.Theme
 import com.waz.zclient.common.views.SingleUserRowView
 
-class MentionCandidatesAdapter extends RecyclerView.Adapter[MentionCandidateViewHolder] {
+class MentionCandidatesAdapter extends RecyclerView.Adapter[MentionCandidateViewHolder] { adapter =>
 
   private var _data = Seq[UserData]()
   private var _teamId = Option.empty[TeamId]
@@ -35,10 +36,20 @@ class MentionCandidatesAdapter extends RecyclerView.Adapter[MentionCandidateView
   val onUserClicked: SourceStream[UserData] = EventStream()
 
   def setData(data: Seq[UserData], teamId: Option[TeamId], theme: Theme): Unit = {
+    val prev = _data
+    val rebindAll = teamId != _teamId || theme != _theme
     _data = data
     _teamId = teamId
     _theme = theme
-    notifyDataSetChanged()
+    if (rebindAll) notifyDataSetChanged()
+    else if (prev != data)
+      // the candidates are refined while the name is typed, so usually only a few rows are removed
+      DiffUtil.calculateDiff(new DiffUtil.Callback {
+        override def getOldListSize: Int = prev.size
+        override def getNewListSize: Int = data.size
+        override def areItemsTheSame(oldPos: Int, newPos: Int): Boolean = prev(oldPos).id == data(newPos).id
+        override def areContentsTheSame(oldPos: Int, newPos: Int): Boolean = prev(oldPos) == data(newPos)
+      }).dispatchUpdatesTo(adapter)
   }
 
   private def getItem(pos: Int): UserData = _data(pos)
@@ -0,0 +1,91 @@
+/**
+ * Wire
+ * Copyright (C) 2018 Wire Swiss GmbH
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.waz.zclient.cursor
+
+import java.text.Normalizer
+import java.util.Locale
+
+import com.waz.model.UserData
+import com.waz.threading.SerialDispatchQueue
+import com.waz.zclient.cursor.MentionCandidatesIndex._
+
+import scala.concurrent.Future
+
+/**
+  * The mention candidates of a conversation - its members except for the self user - with their names and handles
+  * normalized once, when the index is built, so that searching is just comparing strings.
+  *
+  * The results are ranked as by the user search they replace: first the members whose name starts with the query, then
+  * the ones with a word of the name starting with it, the ones whose handle starts with it, and finally the ones whose
+  * name or handle contains it - each group sorted by name.
+  *
+  * Searches run on a background queue, one at a time. As the query usually grows one char at a time while the name is
+  * typed, a query extending the previous one only looks through the previous matches.
+  */
+class MentionCandidatesIndex(members: Seq[UserData]) {
+
+  private val entries = members.map(Entry(_)).sortBy(_.name).toVector
+
+  // only accessed on the queue
+  private var last = Option.empty[(String, Vector[Entry])]
+
+  def search(query: String): Future[IndexedSeq[UserData]] = Future {
+    val q = normalize(query)
+    val candidates = last match {
+      case Some((prev, results)) if q.startsWith(prev) => results
+      case _                                           => entries
+    }
+    val wordStart = " " + q
+    val matches = if (q.isEmpty) candidates else candidates.filter(_.rank(q, wordStart) >= 0)
+    last = Some((q, matches))
+    // the sort is stable, so each rank stays sorted by name
+    (if (q.isEmpty) matches else matches.sortBy(_.rank(q, wordStart))).map(_.user)
+  } (SearchQueue)
+}
+
+object MentionCandidatesIndex {
+
+  private val SearchQueue = new SerialDispatchQueue(name = "MentionCandidatesIndex")
+
+  def build(members: Seq[UserData]): Future[MentionCandidatesIndex] = Future(new MentionCandidatesIndex(members))(SearchQueue)
+
+  private[cursor] case class Entry(user: UserData, name: String, handle: String) {
+    /**
+      * @return the rank of this entry for the given query (the lower, the better), or -1 if it doesn't match.
+      */
+    def rank(query: String, wordStart: String): Int =
+      if (name.startsWith(query)) 0
+      else if (name.contains(wordStart)) 1
+      else if (handle.startsWith(query)) 2
+      else if (name.contains(query)) 3
+      else if (handle.contains(query)) 4
+      else -1
+  }
+
+  private[cursor] object Entry {
+    def apply(user: UserData): Entry = Entry(user, normalize(user.getDisplayName.str), user.handle.fold("")(h => normalize(h.string)))
+  }
+
+  private val Diacritics = "\\p{InCombiningDiacriticalMarks}+".r
+
+  /**
+    * Lower case, without diacritics and with the no-break spaces of the mentions replaced by regular ones.
+    */
+  def normalize(str: String): String =
+    Diacritics.replaceAllIn(Normalizer.normalize(str.replace('\u00A0', ' '), Normalizer.Form.NFD), "").toLowerCase(Locale.ROOT)
+}
@@ -18,16 +18,16 @@
 package com.waz.zclient.giphy
 
 import android.graphics.drawable.ColorDrawable
+import android.support.v7.util.DiffUtil
 import android.support.v7.widget.RecyclerView
 import android.view.{View, ViewGroup}
 import com.waz.ZLog.ImplicitTag._
 import com.waz.model.AssetData
-import com.waz.service.assets.AssetService.BitmapResult
-import com.waz.ui.MemoryImageCache.BitmapRequest
 import com.waz.utils.events.{EventContext, Signal}
 import com.waz.zclient.common.views.ImageAssetDrawable
-import com.waz.zclient.common.views.ImageController.DataImage
-import com.waz.zclient.giphy.GiphyGridViewAdapter.{AssetLoader, ScrollGifCallback}
+import com.waz.zclient.common.views.ImageAssetDrawable.RequestBuilder
+import com.waz.zclient.common.views.ImageController.{DataImage, ImageSource, NoImage}
+import com.waz.zclient.giphy.GiphyGridViewAdapter.ScrollGifCallback
 import com.waz.zclient.giphy.GiphySharingPreviewFragment.GifData
 import com.waz.zclient.pages.main.conversation.views.AspectRatioImageView
 import com.waz.zclient.ui.utils.MathUtils
@@ -35,39 +35,44 @@ import com.waz.zclient.{Injector, R, ViewHelper}
 
 object GiphyGridViewAdapter {
 
-  type AssetLoader = (AssetData, BitmapRequest) => Signal[BitmapResult]
-
   class ViewHolder(view: View,
-                   val assetLoader: AssetLoader,
                    val scrollGifCallback: GiphyGridViewAdapter.ScrollGifCallback)
                   (implicit val ec: EventContext, injector: Injector)
     extends RecyclerView.ViewHolder(view) {
 
     private lazy val gifPreview = itemView.findViewById[AspectRatioImageView](R.id.iv__row_giphy_image)
 
+    private lazy val colorArray = itemView.getContext.getResources.getIntArray(R.array.selectable_accents_color)
+
+    private var image = Option.empty[AssetData]
+    // previews are never decoded wider than they are, even if the column is wider
+    private var previewWidth = 0
+
+    private val previewSource = Signal[ImageSource]()
+    private val placeholder = new ColorDrawable()
+
+    // a single drawable, pointed at the new preview on each rebind
+    private val imageAssetDrawable = new ImageAssetDrawable(
+      previewSource,
+      request = w => RequestBuilder.Regular(if (previewWidth > 0) math.min(w, previewWidth) else w),
+      background = Some(placeholder)
+    )
+
+    gifPreview.setImageDrawable(imageAssetDrawable)
+    gifPreview.setOnClickListener(new View.OnClickListener() {
+      override def onClick(v: View): Unit = image.foreach(scrollGifCallback.setSelectedGifFromGridView)
+    })
+
     def setImageAssets(image: AssetData, preview: Option[AssetData], position: Int): Unit = {
-      gifPreview.setOnClickListener(new View.OnClickListener() {
-        override def onClick(v: View): Unit = {
-          scrollGifCallback.setSelectedGifFromGridView(image)
-        }
+      this.image = Some(image)
+      placeholder.setColor(colorArray(position % (colorArray.length - 1)))
+      previewWidth = preview.fold(0)(_.width)
+      gifPreview.setAspectRatio(preview.fold(1f) { data =>
+        if (MathUtils.floatEqual(data.height, 0)) 1f
+        else data.width.toFloat / data.height
       })
-
-      val colorArray = itemView.getContext.getResources.getIntArray(R.array.selectable_accents_color)
-      val defaultDrawable = new ColorDrawable(colorArray(position % (colorArray.length - 1)))
-
-      preview match {
-        case None => gifPreview.setImageDrawable(defaultDrawable)
-        case Some(data) =>
-          val imageAssetDrawable = new ImageAssetDrawable(
-            Signal.const(DataImage(data)),
-            background = Some(defaultDrawable)
-          )
-          gifPreview.setImageDrawable(imageAssetDrawable)
-          gifPreview.setAspectRatio(
-            if (MathUtils.floatEqual(data.height, 0)) 1f
-            else data.width.toFloat / data.height
-          )
-      }
+      previewSource ! preview.fold[ImageSource](NoImage())(DataImage)
+      imageAssetDrawable.invalidateSelf()
     }
   }
 
@@ -77,8 +82,7 @@ object GiphyGridViewAdapter {
 
 }
 
-class GiphyGridViewAdapter(val scrollGifCallback: ScrollGifCallback,
-                           val assetLoader: AssetLoader)
+class GiphyGridViewAdapter(val scrollGifCallback: ScrollGifCallback)
                           (implicit val ec: EventContext, injector: Injector)
   extends RecyclerView.Adapter[GiphyGridViewAdapter.ViewHolder] {
 
@@ -88,7 +92,7 @@ class GiphyGridViewAdapter(val scrollGifCallback: ScrollGifCallback,
 
   override def onCreateViewHolder(parent: ViewGroup, viewType: Int): GiphyGridViewAdapter.ViewHolder = {
     val rootView = ViewHelper.inflate[View](R.layout.row_giphy_image, parent, addToParent = false)
-    new ViewHolder(rootView, assetLoader, scrollGifCallback)
+    new ViewHolder(rootView, scrollGifCallback)
   }
 
   override def onBindViewHolder(holder: GiphyGridViewAdapter.ViewHolder, position: Int): Unit = {
@@ -99,7 +103,14 @@ class GiphyGridViewAdapter(val scrollGifCallback: ScrollGifCallback,
   override def getItemCount: Int = giphyResults.size
 
   def setGiphyResults(giphyResults: Seq[GifData]): Unit = {
-    this.giphyResults = giphyResults
-    notifyDataSetChanged()
+    val (prev, next) = (this.giphyResults.toVector, giphyResults.toVector)
+    this.giphyResults = next
+    DiffUtil.calculateDiff(new DiffUtil.Callback {
+      override def getOldListSize: Int = prev.size
+      override def getNewListSize: Int = next.size
+      override def areItemsTheSame(oldPos: Int, newPos: Int): Boolean = prev(oldPos).gif.id == next(newPos).gif.id
+      // the placeholder color depends on the position
+      override def areContentsTheSame(oldPos: Int, newPos: Int): Boolean = oldPos == newPos && prev(oldPos) == next(newPos)
+    }).dispatchUpdatesTo(this)
   }
 }
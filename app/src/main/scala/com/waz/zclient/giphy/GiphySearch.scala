@@ -0,0 +1,59 @@
+/**
+ * Wire
+ * Copyright (C) 2018 Wire Swiss GmbH
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.waz.zclient.giphy
+
+import com.waz.threading.{CancellableFuture, Threading}
+import com.waz.utils.events.Signal
+import com.waz.zclient.giphy.GiphySearch.GifSource
+import com.waz.zclient.giphy.GiphySharingPreviewFragment.GifData
+
+import scala.concurrent.Future
+import scala.concurrent.duration._
+
+/**
+  * The gifs to show for the given search term: the trending ones when the term is empty, the search results otherwise.
+  * Searches are debounced while the user keeps typing, and only the results of the latest one are published - the
+  * results of superseded requests are ignored.
+  *
+  * @param debounce completes when the search for the given term is due, i.e. if the term isn't changed in the meantime
+  */
+class GiphySearch(source: Signal[GifSource], term: Signal[String], debounce: String => Future[Unit] = GiphySearch.delay(GiphySearch.DebounceDelay)) {
+
+  private val debouncedTerm = term.map(_.trim).flatMap { t =>
+    if (t.isEmpty) Signal.const(t)
+    else Signal.future(debounce(t).map(_ => t)(Threading.Background))
+  }
+
+  val results: Signal[Seq[GifData]] = for {
+    src <- source
+    t   <- debouncedTerm
+    res <- Signal.future(if (t.isEmpty) src.trending() else src.search(t))
+  } yield res
+}
+
+object GiphySearch {
+
+  val DebounceDelay = GiphySharingPreviewFragment.GiphySearchDelayMinSec.millis
+
+  def delay(d: FiniteDuration): String => Future[Unit] = _ => CancellableFuture.delay(d).future
+
+  trait GifSource {
+    def trending(): Future[Seq[GifData]]
+    def search(term: String): Future[Seq[GifData]]
+  }
+}
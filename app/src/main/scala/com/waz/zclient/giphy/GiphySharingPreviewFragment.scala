@@ -24,7 +24,6 @@ import android.view.{LayoutInflater, View, ViewGroup}
 import android.widget.{EditText, ImageView, TextView}
 import com.waz.ZLog.ImplicitTag._
 import com.waz.model.AssetData
-import com.waz.service.images.BitmapSignal
 import com.waz.service.tracking.ContributionEvent
 import com.waz.service.{NetworkModeService, ZMessaging}
 import com.waz.threading.Threading
@@ -38,6 +37,7 @@ import com.waz.zclient.common.views.ImageAssetDrawable.{ScaleType, State}
 import com.waz.zclient.common.views.ImageController.{DataImage, ImageSource, NoImage}
 import com.waz.zclient.conversation.ConversationController
 import com.waz.zclient.giphy.GiphyGridViewAdapter.ScrollGifCallback
+import com.waz.zclient.giphy.GiphySearch.GifSource
 import com.waz.zclient.pages.BaseFragment
 import com.waz.zclient.pages.main.profile.views.{ConfirmationMenu, ConfirmationMenuListener}
 import com.waz.zclient.ui.utils.TextViewUtils
@@ -70,14 +70,14 @@ class GiphySharingPreviewFragment extends BaseFragment[GiphySharingPreviewFragme
     case _ => NoImage()
   }
 
-  private lazy val giphySearchResults = for {
-    giphyService <- giphyService
-    term <- searchTerm
-    searchResults <- Signal.future(
-      if (TextUtils.isEmpty(term)) giphyService.trending()
-      else giphyService.searchGiphyImage(term)
-    )
-  } yield searchResults.map(GifData.tupled)
+  private lazy val gifSource = giphyService.map { giphy =>
+    new GifSource {
+      override def trending() = giphy.trending().map(_.map(GifData.tupled))(Threading.Background)
+      override def search(term: String) = giphy.searchGiphyImage(term).map(_.map(GifData.tupled))(Threading.Background)
+    }
+  }
+
+  private lazy val giphySearchResults = new GiphySearch(gifSource, searchTerm).results
 
   private lazy val previewImage = returning(view[ImageView](R.id.giphy_preview)) { vh =>
     networkService.isOnline.onUi(isOnline => vh.foreach(_.setClickable(isOnline)))
@@ -143,8 +143,7 @@ class GiphySharingPreviewFragment extends BaseFragment[GiphySharingPreviewFragme
         selectedGif ! Some(gifAsset)
         keyboardController.hideKeyboardIfVisible()
       }
-    },
-    assetLoader = BitmapSignal.apply(zms.currentValue.get, _, _)
+    }
   )) { adapter => giphySearchResults.onUi(adapter.setGiphyResults) }
 
   override def onCreateView(inflater: LayoutInflater, container: ViewGroup, savedInstanceState: Bundle): View =
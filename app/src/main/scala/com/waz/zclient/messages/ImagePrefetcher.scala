@@ -0,0 +1,166 @@
+/**
+ * Wire
+ * Copyright (C) 2018 Wire Swiss GmbH
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.waz.zclient.messages
+
+import android.content.Context
+import com.waz.ZLog.ImplicitTag._
+import com.waz.ZLog._
+import com.waz.api.Message
+import com.waz.api.Message.Part
+import com.waz.model.GenericContent.LinkPreview
+import com.waz.model.{Dim2, MessageData, MessageId}
+import com.waz.sync.client.OpenGraphClient.OpenGraphData
+import com.waz.threading.{CancellableFuture, Threading}
+import com.waz.utils.events.{EventContext, Subscription}
+import com.waz.zclient.common.views.ImageAssetDrawable.RequestBuilder
+import com.waz.zclient.common.views.ImageController
+import com.waz.zclient.common.views.ImageController.{DataImage, ImageSource, ImageUri, WireImage}
+import com.waz.zclient.messages.ImagePrefetcher._
+import com.waz.zclient.messages.parts.assets.ImageLayoutAssetPart
+import com.waz.zclient.utils.ContextUtils._
+import com.waz.zclient.{Injectable, Injector, R}
+
+import scala.concurrent.duration._
+
+/**
+  * Starts loading the images of the messages which are about to be scrolled into view, so that they are (ideally)
+  * in the memory cache by the time their rows are bound. Only the `PrefetchCount` messages ahead of the visible ones
+  * in the scroll direction are prefetched, with the same requests (i.e. the same widths) as the ones their views will
+  * make. Only the messages already loaded by the `MessageDataSource` are considered, placeholders are skipped.
+  *
+  * A prefetch is just a subscription to the image signal, so it's cancelled (and the loading stopped) by destroying
+  * the subscription. That happens when the conversation is left - and `ReleaseDelay` after the message leaves the
+  * prefetched range (or the scroll direction is reversed), as it usually does by becoming visible: by then, its view
+  * has subscribed to the same image, so the loading goes on instead of being restarted.
+  */
+class ImagePrefetcher(adapter: MessagesPagedListAdapter)(implicit inj: Injector, ec: EventContext, context: Context) extends Injectable {
+
+  private val images = inject[ImageController]
+
+  private var direction = 0
+  private var range = Option.empty[Range]
+  private var prefetched = Map.empty[MessageId, Seq[Subscription]]
+  // the prefetches of the messages which left the range, until they're released
+  private var releasing  = Map.empty[MessageId, (Seq[Subscription], CancellableFuture[Unit])]
+
+  private lazy val contentMargins = getDimenPx(R.dimen.content__padding_left) + getDimenPx(R.dimen.content__padding_right)
+
+  /**
+    * @param dy the scroll distance - the list is reversed, so scrolling towards the top (dy < 0) reveals older messages,
+    *           i.e. higher positions
+    */
+  def onScrolled(firstVisible: Int, lastVisible: Int, dy: Int): Unit = if (dy != 0 && firstVisible >= 0) {
+    val dir = math.signum(dy)
+    if (dir != direction) {
+      // the messages just scrolled through may be getting visible, so they're released after the delay too
+      update(Nil)
+      range = None
+      direction = dir
+    }
+
+    val ahead =
+      if (dir < 0) (lastVisible + 1) to math.min(lastVisible + PrefetchCount, adapter.getItemCount - 1)
+      else math.max(firstVisible - PrefetchCount, 0) until firstVisible
+
+    if (!range.contains(ahead)) {
+      range = Some(ahead)
+      update(ahead.flatMap(pos => Option(adapter.getCurrentList).flatMap(l => Option(l.get(pos)))).map(_.message))
+    }
+  }
+
+  def cancel(): Unit = {
+    prefetched.values.foreach(_.foreach(_.destroy()))
+    releasing.values.foreach { case (subs, timer) =>
+      timer.cancel()
+      subs.foreach(_.destroy())
+    }
+    prefetched = Map.empty
+    releasing = Map.empty
+    range = None
+  }
+
+  private def update(msgs: Seq[MessageData]): Unit = {
+    val ids = msgs.map(_.id).toSet
+
+    // back in range before being released
+    releasing.foreach { case (id, (subs, timer)) =>
+      if (ids(id)) {
+        timer.cancel()
+        prefetched += id -> subs
+      }
+    }
+    releasing = releasing.filterKeys(id => !ids(id)).toMap
+
+    prefetched.foreach { case (id, subs) =>
+      if (!ids(id)) releasing += id -> ((subs, CancellableFuture.delayed(ReleaseDelay)(release(id))(Threading.Ui)))
+    }
+    prefetched = prefetched.filterKeys(ids).toMap
+
+    msgs.filterNot(m => prefetched.contains(m.id)).foreach { m =>
+      val requests = imageRequests(m, adapter.listDim, contentMargins)
+      if (requests.nonEmpty) {
+        verbose(s"prefetching ${requests.size} images of ${m.id}")
+        prefetched += m.id -> requests.map { case ImageRequest(src, req, force) =>
+          images.imageSignal(src, req, force).on(Threading.Background)(_ => ())
+        }
+      }
+    }
+  }
+
+  private def release(id: MessageId): Unit = releasing.get(id).foreach { case (subs, _) =>
+    subs.foreach(_.destroy())
+    releasing -= id
+  }
+}
+
+object ImagePrefetcher {
+
+  val PrefetchCount = 6
+  val ReleaseDelay  = 2.seconds
+
+  case class ImageRequest(src: ImageSource, request: RequestBuilder, forceDownload: Boolean)
+
+  /**
+    * The image requests the views of the given message will make, with the same sources, widths and download policy.
+    */
+  def imageRequests(msg: MessageData, listDim: Dim2, contentMargins: Int): Seq[ImageRequest] =
+    if (listDim.width <= 0 || msg.isEphemeral) Nil
+    else msg.msgType match {
+      case Message.Type.ASSET | Message.Type.VIDEO_ASSET =>
+        msg.imageDimensions.filter(d => d.width > 0 && d.height > 0).toSeq.map { dim =>
+          val width = ImageLayoutAssetPart.displaySize(listDim.width - contentMargins, listDim.height, dim).width
+          ImageRequest(WireImage(msg.assetId), RequestBuilder.Regular(width), msg.msgType == Message.Type.VIDEO_ASSET)
+        }
+      case Message.Type.RICH_MEDIA =>
+        val linkWidth = listDim.width - contentMargins
+        msg.content.zipWithIndex.flatMap {
+          case (ct, _) if ct.tpe == Part.Type.YOUTUBE =>
+            ct.richMedia.flatMap(_.artwork).map(id => ImageRequest(WireImage(id), RequestBuilder.Regular(listDim.width), forceDownload = true))
+          case (ct, index) if ct.tpe == Part.Type.WEB_LINK =>
+            val linkIndex = msg.content.take(index).count(_.tpe == Part.Type.WEB_LINK)
+            val source = (ct.openGraph, msg.links.lift(linkIndex)) match {
+              case (_, Some(LinkPreview.WithAsset(asset)))            => Some(DataImage(asset))
+              case (Some(OpenGraphData(_, _, Some(uri), _, _)), None) => Some(ImageUri(uri))
+              case _                                                  => None
+            }
+            source.map(ImageRequest(_, RequestBuilder.Single(linkWidth), forceDownload = true))
+          case _ => None
+        }
+      case _ => Nil
+    }
+}
@@ -42,8 +42,6 @@ import scala.collection.mutable.ArrayBuffer
 class IndexWindow(cursor: RecyclerCursor, notifier: RecyclerNotifier, size: Int = 100) {
   import IndexWindow._
 
-  private val ord = implicitly[Ordering[Entry]]
-
   private var data = IndexedSeq.empty[Entry]
   private var totalCount = 0
 
@@ -98,7 +96,7 @@ class IndexWindow(cursor: RecyclerCursor, notifier: RecyclerNotifier, size: Int
   def cursorChanged(c: MessagesCursor) = {
     val items = if (cursor.count > 0) c.getEntries(offset, math.min(cursor.count - offset, 100)).toIndexedSeq else IndexedSeq.empty
     val prevCount = totalCount
-    val change = diff(data, items).result
+    val change = diff(data, items)
     data = items
     totalCount = c.size
     val count = math.min(change.count, cursor.count - offset - change.index)
@@ -119,7 +117,18 @@ class IndexWindow(cursor: RecyclerCursor, notifier: RecyclerNotifier, size: Int
     }
   }
 
-  private def diff(from: Seq[Entry], to: Seq[Entry], index: Int = 0, builder: ChangeBuilder = new ChangeBuilder): ChangeBuilder = (from.headOption, to.headOption) match {
+}
+
+object IndexWindow {
+
+  private val ord = implicitly[Ordering[Entry]]
+
+  /**
+    * The change between two (sorted) windows of entries, see `cursorChanged`.
+    */
+  def diff(from: Seq[Entry], to: Seq[Entry]): Change = diff(from, to, 0, new ChangeBuilder).result
+
+  private def diff(from: Seq[Entry], to: Seq[Entry], index: Int, builder: ChangeBuilder): ChangeBuilder = (from.headOption, to.headOption) match {
     case (None, None)                           => builder
     case (Some(_), None)                        => builder.remove(index, from)
     case (None, Some(_))                        => builder.add(index, to)
@@ -127,9 +136,6 @@ class IndexWindow(cursor: RecyclerCursor, notifier: RecyclerNotifier, size: Int
     case (Some(fh), Some(th)) if ord.gt(fh, th) => diff(from, to.tail, index + 1, builder.add(index, th))
     case (Some(fh), Some(_))                    => diff(from.tail, to, index, builder.remove(index, fh))
   }
-}
-
-object IndexWindow {
 
   sealed trait Change {
     val index: Int
@@ -54,6 +54,7 @@ class MessagesListView(context: Context, attrs: AttributeSet, style: Int) extend
   val layoutManager = new MessagesListLayoutManager(context, LinearLayoutManager.VERTICAL, true)
   val adapter = new MessagesPagedListAdapter()
   val scrollController = new ScrollController(adapter, this, layoutManager)
+  private val imagePrefetcher = new ImagePrefetcher(adapter)
 
   private val plCallback: PagedList.Callback = new PagedList.Callback {
 
@@ -84,6 +85,7 @@ class MessagesListView(context: Context, attrs: AttributeSet, style: Int) extend
     val toReveal = messageToReveal.flatMap(mtr => dataSource.positionForMessage(mtr).filter(_ >= 0))
 
     if (!prevConv.contains(data.convId)) {
+      imagePrefetcher.cancel()
       scrollController.reset(toReveal.orElse(unread).getOrElse(0))
       prevConv = Some(data.convId)
     } else {
@@ -130,6 +132,9 @@ class MessagesListView(context: Context, attrs: AttributeSet, style: Int) extend
       }
       case _ =>
     }
+
+    override def onScrolled(recyclerView: RecyclerView, dx: Int, dy: Int): Unit =
+      imagePrefetcher.onScrolled(layoutManager.findFirstVisibleItemPosition(), layoutManager.findLastVisibleItemPosition(), dy)
   })
 
   adapter.hasEphemeral.onUi { hasEphemeral =>
@@ -152,6 +157,11 @@ class MessagesListView(context: Context, attrs: AttributeSet, style: Int) extend
     super.onLayout(changed, l, t, r, b)
   }
 
+  override def onDetachedFromWindow(): Unit = {
+    imagePrefetcher.cancel()
+    super.onDetachedFromWindow()
+  }
+
   def scrollToBottom(): Unit = scrollController.onScrollToBottomRequested ! true
 }
 
@@ -25,13 +25,14 @@ import android.widget.{ImageView, TextView}
 import com.waz.ZLog.ImplicitTag._
 import com.waz.model.AccentColor
 import com.waz.threading.Threading
-import com.waz.utils.events.{ClockSignal, Signal}
+import com.waz.utils.events.Signal
 import com.waz.utils.returning
 import com.waz.zclient.common.controllers.global.AccentColorController
 import com.waz.zclient.messages.MessageViewPart
 import com.waz.zclient.ui.theme.ThemeUtils
 import com.waz.zclient.ui.utils.{ColorUtils, TypefaceUtils}
 import com.waz.zclient.utils.ContextUtils._
+import com.waz.zclient.utils.FrameTicker
 import com.waz.zclient.{R, ViewHelper}
 
 trait EphemeralPartView extends MessageViewPart { self: ViewHelper =>
@@ -82,16 +83,26 @@ trait EphemeralIndicatorPartView extends MessageViewPart with ViewHelper {
   private val paddingTop = getDimenPx(R.dimen.wire__padding__6)
   private val borderPadding = getDimenPx(R.dimen.wire__padding__1)
 
+  private val circleRect = new RectF()
+  private val innerRect = new RectF()
+
+  // the timer only needs to tick while the part is on screen
+  private val shown = Signal(false)
+
   private val timerAngle = messageAndLikes
     .map { m => (m.message.ephemeral, m.message.expired, m.message.expiryTime) }  // optimisation to ignore unrelated changes
     .flatMap {
     case (ephemeral, expired, expiryTime) =>
       if (expired) Signal const 360
       else expiryTime.fold(Signal const 0) { time =>
-        val interval = ephemeral.get / 360
-        ClockSignal(interval) map { now =>
-          val remaining = time.toEpochMilli - now.toEpochMilli
-          360 - ((remaining * 360f / ephemeral.get.toMillis).toInt max 0 min 360)
+        shown.flatMap {
+          case false => Signal.empty[Int]
+          case true =>
+            // the angle is an Int, so the views are only redrawn when it changes by at least one degree
+            FrameTicker.map { now =>
+              val remaining = time.toEpochMilli - now.toEpochMilli
+              360 - ((remaining * 360f / ephemeral.get.toMillis).toInt max 0 min 360)
+            }
         }
       }
   }
@@ -104,11 +115,27 @@ trait EphemeralIndicatorPartView extends MessageViewPart with ViewHelper {
   state.on(Threading.Ui) { _ => invalidate() }
   setWillNotDraw(false)
 
+  override def onAttachedToWindow(): Unit = {
+    super.onAttachedToWindow()
+    shown ! isShown
+  }
+
+  override def onVisibilityChanged(changedView: View, visibility: Int): Unit = {
+    super.onVisibilityChanged(changedView, visibility)
+    shown ! isShown
+  }
+
+  override def onWindowVisibilityChanged(visibility: Int): Unit = {
+    super.onWindowVisibilityChanged(visibility)
+    shown ! (visibility == View.VISIBLE && isShown)
+  }
+
   override def onDraw(canvas: Canvas): Unit = state.currentValue match {
     case Some((true, angle)) if canvas != null && canvas.getHeight > 0 =>
       val top = Math.min(paddingTop, (canvas.getHeight - circleSize) / 2)
-      val circleRect = new RectF(paddingStart, top, paddingStart + circleSize, top + circleSize)
-      val innerRect = returning(new RectF(circleRect))(_.inset(borderPadding, borderPadding))
+      circleRect.set(paddingStart, top, paddingStart + circleSize, top + circleSize)
+      innerRect.set(circleRect)
+      innerRect.inset(borderPadding, borderPadding)
 
       canvas.drawArc(circleRect, 0, 360, true, bgPaint)
       canvas.drawArc(innerRect, -90, angle, true, paint)
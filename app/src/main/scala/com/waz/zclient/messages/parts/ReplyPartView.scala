@@ -37,7 +37,7 @@ import com.waz.zclient.conversation.ReplyView.ReplyBackgroundDrawable
 import com.waz.zclient.messages.MessageView.MsgBindOptions
 import com.waz.zclient.messages.MsgPart._
 import com.waz.zclient.messages._
-import com.waz.zclient.paintcode.WireStyleKit
+import com.waz.zclient.paintcode.WireDrawable.Icons
 import com.waz.zclient.ui.text.{GlyphTextView, LinkTextView, TypefaceTextView}
 import com.waz.zclient.ui.utils.TypefaceUtils
 import com.waz.zclient.utils.ContextUtils.{getString, getStyledColor}
@@ -106,7 +106,7 @@ abstract class ReplyPartView(context: Context, attrs: AttributeSet, style: Int)
     .onUi(timestamp.setText)
 
   quotedMessage.map(!_.editTime.isEpoch).onUi { edited =>
-    name.setEndCompoundDrawable(if (edited) Some(WireStyleKit.drawEdit) else None, getStyledColor(R.attr.wirePrimaryTextColor))
+    name.setEndCompoundDrawable(if (edited) Some(Icons.Edit) else None, getStyledColor(R.attr.wirePrimaryTextColor))
   }
 
   container.onClick(onQuoteClick ! {()})
@@ -194,7 +194,7 @@ class LocationReplyPartView(context: Context, attrs: AttributeSet, style: Int) e
   private lazy val textView = findById[TypefaceTextView](R.id.text)
 
   quotedMessage.map(_.location.map(_.getName).getOrElse("")).onUi(textView.setText)
-  textView.setStartCompoundDrawable(Some(WireStyleKit.drawLocation), getStyledColor(R.attr.wirePrimaryTextColor))
+  textView.setStartCompoundDrawable(Some(Icons.Location), getStyledColor(R.attr.wirePrimaryTextColor))
 }
 
 class FileReplyPartView(context: Context, attrs: AttributeSet, style: Int) extends ReplyPartView(context: Context, attrs: AttributeSet, style: Int) {
@@ -206,7 +206,7 @@ class FileReplyPartView(context: Context, attrs: AttributeSet, style: Int) exten
   private lazy val textView = findById[TypefaceTextView](R.id.text)
 
   quotedAsset.map(_.flatMap(_.name).getOrElse("")).onUi(textView.setText)
-  textView.setStartCompoundDrawable(Some(WireStyleKit.drawFile), getStyledColor(R.attr.wirePrimaryTextColor))
+  textView.setStartCompoundDrawable(Some(Icons.File), getStyledColor(R.attr.wirePrimaryTextColor))
 }
 
 class VideoReplyPartView(context: Context, attrs: AttributeSet, style: Int) extends ReplyPartView(context: Context, attrs: AttributeSet, style: Int) {
@@ -235,7 +235,7 @@ class AudioReplyPartView(context: Context, attrs: AttributeSet, style: Int) exte
   private lazy val textView = findById[TypefaceTextView](R.id.text)
 
   textView.setText(R.string.reply_message_type_audio)
-  textView.setStartCompoundDrawable(Some(WireStyleKit.drawVoiceMemo), getStyledColor(R.attr.wirePrimaryTextColor))
+  textView.setStartCompoundDrawable(Some(Icons.VoiceMemo), getStyledColor(R.attr.wirePrimaryTextColor))
 }
 
 class UnknownReplyPartView(context: Context, attrs: AttributeSet, style: Int) extends ReplyPartView(context: Context, attrs: AttributeSet, style: Int) {
@@ -44,35 +44,34 @@ class AssetBackground(showDots: Signal[Boolean], expired: Signal[Boolean], accen
   private var _showDots = false
   private var _padding = Offset.Empty
 
-  (for {
-    dots <- showDots
-    pad <- padding
-    exp <- expired
-    acc <- accent
-  } yield (dots, pad, exp, acc)).on(Threading.Ui) {
+  // reused by every draw
+  private val rect = new RectF
+
+  // only what is drawn, so that a change of the other inputs (e.g. of the accent color while not expired) is dropped
+  Signal(showDots, padding, expired, accent).map {
     case (dots, pad, exp, acc) =>
+      (dots, pad, if (exp) ColorUtils.injectAlpha(ThemeUtils.getEphemeralBackgroundAlpha(context), acc.color) else defColor)
+  }.on(Threading.Ui) {
+    case (dots, pad, color) =>
       _showDots = dots
       _padding = pad
-
-      if (exp) backgroundPaint.setColor(ColorUtils.injectAlpha(ThemeUtils.getEphemeralBackgroundAlpha(context), acc.color))
-      else backgroundPaint.setColor(defColor)
-
+      backgroundPaint.setColor(color)
       invalidateSelf()
   }
 
   override def draw(canvas: Canvas): Unit = {
+    val b = getBounds
+    rect.set(b.left + _padding.l, b.top + _padding.t, b.right - _padding.r, b.bottom - _padding.b)
 
-    val bounds =
-      if (_padding == Offset.Empty) getBounds
-      else {
-        val b = getBounds
-        new Rect(b.left + _padding.l, b.top + _padding.t, b.right - _padding.r, b.bottom - _padding.b)
-      }
-
-    canvas.drawRoundRect(new RectF(bounds), cornerRadius, cornerRadius, backgroundPaint)
+    canvas.drawRoundRect(rect, cornerRadius, cornerRadius, backgroundPaint)
     if (_showDots) dots.draw(canvas)
   }
 
+  override def setVisible(visible: Boolean, restart: Boolean): Boolean = {
+    dots.setVisible(visible, restart)
+    super.setVisible(visible, restart)
+  }
+
   override def setColorFilter(colorFilter: ColorFilter): Unit = {
     backgroundPaint.setColorFilter(colorFilter)
     dots.setColorFilter(colorFilter)
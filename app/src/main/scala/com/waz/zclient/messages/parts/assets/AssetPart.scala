@@ -106,7 +106,6 @@ trait FileLayoutAssetPart extends AssetPart with EphemeralIndicatorPartView {
 }
 
 trait ImageLayoutAssetPart extends AssetPart with EphemeralIndicatorPartView {
-  import ImageLayoutAssetPart._
 
   protected val imageDim = message.map(_.imageDimensions).collect { case Some(d) => d}
   protected val maxWidth = Signal[Int]()
@@ -139,33 +138,17 @@ trait ImageLayoutAssetPart extends AssetPart with EphemeralIndicatorPartView {
   val displaySize = for {
     maxW <- maxWidth
     maxH <- maxHeight
-    Dim2(imW, imH) <- imageDim
-  } yield {
-    val heightToWidth = imH.toDouble / imW.toDouble
-
-    val height = heightToWidth * maxW
-
-    //fit image within view port height-wise (plus the little bit of buffer space), if it's height to width ratio is not too big. For super tall/thin
-    //images, we leave them as is otherwise they might become too skinny to be viewed properly
-    val scaleDownToHeight = maxH * (1 - scaleDownBuffer)
-    val scaleDown = if (height > scaleDownToHeight && heightToWidth < scaleDownUnderRatio) scaleDownToHeight.toDouble / height.toDouble else 1D
-
-    val scaledWidth = maxW * scaleDown
-
-    //finally, make sure the width of the now height-adjusted image is either the full view port width, or less than
-    //or equal to the centered area (taking left and right margins into consideration). This is important to get the
-    //padding right in the next signal
-    val finalWidth =
-      if (scaledWidth <= maxW) scaledWidth
-      else maxW
-
-    val finalHeight = heightToWidth * finalWidth
+    dim  <- imageDim
+  } yield ImageLayoutAssetPart.displaySize(maxW, maxH, dim)
 
-    Dim2(finalWidth.toInt, finalHeight.toInt)
-  }
+  displaySize.onUi(setDisplayHeight)
 
-  displaySize.onUi{ ds =>
-    setLayoutParams(returning(getLayoutParams)(_.height = ds.height))
+  private def setDisplayHeight(ds: Dim2): Unit = {
+    val params = getLayoutParams
+    if (params.height != ds.height) {
+      params.height = ds.height
+      setLayoutParams(params)
+    }
   }
 
   val padding = for {
@@ -184,9 +167,19 @@ trait ImageLayoutAssetPart extends AssetPart with EphemeralIndicatorPartView {
   override def set(msg: MessageAndLikes, part: Option[MessageContent], opts: Option[MsgBindOptions]): Unit = {
     super.set(msg, part, opts)
     opts.foreach { o =>
+      // the container is as wide as the list minus its margins, so the display size is known before the first layout
+      // pass - applying it right away means the row is measured only once, with its final height
+      val w = o.listDimensions.width - horizontalMargins
+      maxWidth ! w
       maxHeight ! o.listDimensions.height
+      msg.message.imageDimensions.foreach(dim => setDisplayHeight(ImageLayoutAssetPart.displaySize(w, o.listDimensions.height, dim)))
     }
   }
+
+  private def horizontalMargins = imageContainer.getLayoutParams match {
+    case p: ViewGroup.MarginLayoutParams => p.leftMargin + p.rightMargin
+    case _ => 0
+  }
 }
 
 object ImageLayoutAssetPart {
@@ -195,4 +188,33 @@ object ImageLayoutAssetPart {
 
   //Height to width - images with a lower ratio will be scaled to fit in the view port. Taller images will be allowed to keep their size
   val scaleDownUnderRatio = 2.0
+
+  /**
+    * The size at which an image of the given dimensions is displayed in a container of the given max width, in a list
+    * of the given height.
+    */
+  def displaySize(maxW: Int, maxH: Int, imageDim: Dim2): Dim2 = {
+    val Dim2(imW, imH) = imageDim
+    val heightToWidth = imH.toDouble / imW.toDouble
+
+    val height = heightToWidth * maxW
+
+    //fit image within view port height-wise (plus the little bit of buffer space), if it's height to width ratio is not too big. For super tall/thin
+    //images, we leave them as is otherwise they might become too skinny to be viewed properly
+    val scaleDownToHeight = maxH * (1 - scaleDownBuffer)
+    val scaleDown = if (height > scaleDownToHeight && heightToWidth < scaleDownUnderRatio) scaleDownToHeight.toDouble / height.toDouble else 1D
+
+    val scaledWidth = maxW * scaleDown
+
+    //finally, make sure the width of the now height-adjusted image is either the full view port width, or less than
+    //or equal to the centered area (taking left and right margins into consideration). This is important to get the
+    //padding right in the next signal
+    val finalWidth =
+      if (scaledWidth <= maxW) scaledWidth
+      else maxW
+
+    val finalHeight = heightToWidth * finalWidth
+
+    Dim2(finalWidth.toInt, finalHeight.toInt)
+  }
 }
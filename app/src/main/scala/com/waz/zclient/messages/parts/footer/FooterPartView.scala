@@ -189,6 +189,26 @@ class FooterPartView(context: Context, attrs: AttributeSet, style: Int) extends
 
   Signal(controller.expiring, likeButtonVisible).map { case (e, v) => e || !v }.onUi(likeButton.setGone)
 
+  override def onAttachedToWindow(): Unit = {
+    super.onAttachedToWindow()
+    controller.shown ! isShown
+  }
+
+  override def onDetachedFromWindow(): Unit = {
+    controller.shown ! false
+    super.onDetachedFromWindow()
+  }
+
+  override def onVisibilityChanged(changedView: View, visibility: Int): Unit = {
+    super.onVisibilityChanged(changedView, visibility)
+    controller.shown ! isShown
+  }
+
+  override def onWindowVisibilityChanged(visibility: Int): Unit = {
+    super.onWindowVisibilityChanged(visibility)
+    controller.shown ! (visibility == View.VISIBLE && isShown)
+  }
+
   override def onLayout(changed: Boolean, left: Int, top: Int, right: Int, bottom: Int): Unit = {
     super.onLayout(changed, left, top, right, bottom)
     height ! (bottom - top)
@@ -0,0 +1,201 @@
+/**
+ * Wire
+ * Copyright (C) 2018 Wire Swiss GmbH
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.waz.zclient.messages.parts.footer
+
+import com.waz.ZLog.ImplicitTag._
+import com.waz.ZLog._
+import com.waz.model.ReadReceipt.ReadReceiptDao
+import com.waz.model._
+import com.waz.service.{NetworkModeService, ZMessaging}
+import com.waz.threading.Threading
+import com.waz.utils.events.{EventContext, Signal, SourceSignal}
+import com.waz.utils.returning
+import com.waz.zclient.conversation.ConversationController
+import com.waz.zclient.messages.UsersController
+import com.waz.zclient.messages.parts.footer.FooterStateController._
+import com.waz.zclient.{Injectable, Injector}
+
+import scala.concurrent.Future
+import scala.util.control.NonFatal
+
+/**
+  * The state displayed by the message footers, shared by all of them.
+  *
+  * The conversation-wide part (self user, group and team conversation, connectivity) is computed once per
+  * conversation, for the few most recently displayed ones. The per-message part (the message and its read receipts) is
+  * served from the window of messages currently bound to a footer: the receipts of the messages entering the window are
+  * loaded with a single lookup per binding pass (from the storage cache, and with one query for the ones not cached),
+  * and kept up to date from one subscription to the storage change events - so an incoming receipt only updates the
+  * footer of its own message.
+  */
+class FooterStateController(implicit inj: Injector, ec: EventContext) extends Injectable {
+
+  private val zms             = inject[Signal[ZMessaging]]
+  private val usersController = inject[UsersController]
+  private val convController  = inject[ConversationController]
+  private val isOnline        = inject[NetworkModeService].isOnline
+
+  // the most recently requested last
+  private var convStates    = Vector.empty[(ConvId, Signal[ConvFooterState])]
+  private var window        = Map.empty[MessageId, List[MessageFooterSignal]]
+  private var toLoad        = Set.empty[MessageId]
+  private var loadScheduled = false
+
+  def convState(convId: ConvId): Signal[ConvFooterState] = synchronized {
+    convStates.find(_._1 == convId) match {
+      case Some((_, s)) if convStates.last._1 == convId => s
+      case Some(entry) =>
+        convStates = convStates.filterNot(_._1 == convId) :+ entry
+        entry._2
+      case None =>
+        returning(for {
+          selfUserId <- usersController.selfUserId
+          conv       <- zms.flatMap(_.convsStorage.signal(convId))
+          isGroup    <- convController.groupConversation(convId)
+          online     <- isOnline
+        } yield ConvFooterState(selfUserId, isGroup, conv.team.nonEmpty, !online)) { s =>
+          convStates = (convStates :+ (convId -> s)).takeRight(MaxConvStates)
+        }
+    }
+  }
+
+  /**
+    * The footer state of the given message. The signal has no value until the read receipts are loaded, and it stays
+    * in the window (i.e. up to date) as long as it's wired - requesting the state of a message in the window returns
+    * the same signal, without loading the receipts again.
+    */
+  def messageState(msg: MessageData): Signal[MessageFooterState] = synchronized {
+    window.get(msg.id).flatMap(_.headOption).getOrElse(new MessageFooterSignal(msg))
+  }
+
+  zms.flatMap(z => Signal.wrap(z.messagesStorage.onChanged)) { msgs =>
+    msgs.foreach(m => signalsFor(m.id).foreach(_.onMessageChanged(m)))
+  }
+
+  zms.flatMap(z => Signal.wrap(z.readReceiptsStorage.onChanged)) { receipts =>
+    receipts.groupBy(_.message).foreach { case (msgId, rs) =>
+      signalsFor(msgId).foreach(_.onReceiptsChanged(rs.map(r => r.user -> Some(r)).toMap))
+    }
+  }
+
+  zms.flatMap(z => Signal.wrap(z.readReceiptsStorage.onDeleted)) { ids =>
+    ids.groupBy(_._1).foreach { case (msgId, users) =>
+      signalsFor(msgId).foreach(_.onReceiptsChanged(users.map(_._2 -> Option.empty[ReadReceipt]).toMap))
+    }
+  }
+
+  private def signalsFor(id: MessageId) = synchronized(window.getOrElse(id, Nil))
+
+  private def attach(s: MessageFooterSignal): Unit = synchronized {
+    window += s.id -> (s :: window.getOrElse(s.id, Nil))
+    toLoad += s.id
+    if (!loadScheduled) {
+      loadScheduled = true
+      // posted, so that all the footers bound in the same layout pass are loaded together
+      Future(loadWindow())(Threading.Ui)
+    }
+  }
+
+  private def detach(s: MessageFooterSignal): Unit = synchronized {
+    window.getOrElse(s.id, Nil).filterNot(_ eq s) match {
+      case Nil  => window -= s.id
+      case rest => window += s.id -> rest
+    }
+  }
+
+  private def loadWindow(): Unit = {
+    import Threading.Implicits.Background
+
+    val ids = synchronized {
+      returning(toLoad.filter(window.contains)) { _ =>
+        toLoad = Set.empty
+        loadScheduled = false
+      }
+    }
+
+    if (ids.nonEmpty) {
+      verbose(s"loading read receipts of ${ids.size} messages")
+      (for {
+        z     <- zms.head
+        // the cached receipts first (they may not be saved yet), and the ones of the other messages from the database
+        reads <- z.readReceiptsStorage.find[ReadReceipt, Vector[ReadReceipt]](
+                   r => ids(r.message),
+                   implicit db => ReadReceiptDao.iterating(ReadReceiptDao.findInSet(ReadReceiptDao.Message, ids)),
+                   identity
+                 )
+      } yield reads).recover {
+        case NonFatal(e) =>
+          error("failed to load read receipts", e)
+          Vector.empty[ReadReceipt]
+      }.foreach { reads =>
+        val byMessage = reads.groupBy(_.message)
+        ids.foreach(id => signalsFor(id).foreach(_.onLoaded(byMessage.getOrElse(id, Vector.empty))))
+      }
+    }
+  }
+
+  private class MessageFooterSignal(seed: MessageData) extends SourceSignal[MessageFooterState](None) {
+    val id = seed.id
+
+    private var msg     = seed
+    private var reads   = Option.empty[Map[UserId, ReadReceipt]]
+    private var loading = false
+    // receipt changes received while loading, applied on top of the loaded ones (`None` for deleted receipts)
+    private var pending = Map.empty[UserId, Option[ReadReceipt]]
+
+    def onLoaded(loaded: Seq[ReadReceipt]): Unit = update {
+      reads = Some(applyChanges(loaded.map(r => r.user -> r).toMap, pending))
+      pending = Map.empty
+      loading = false
+    }
+
+    def onMessageChanged(m: MessageData): Unit = update { msg = m }
+
+    def onReceiptsChanged(changes: Map[UserId, Option[ReadReceipt]]): Unit = update {
+      if (loading) pending ++= changes
+      reads = reads.map(applyChanges(_, changes))
+    }
+
+    override protected def onWire(): Unit = {
+      synchronized(loading = true)
+      attach(this)
+    }
+
+    override protected def onUnwire(): Unit = detach(this)
+
+    private def update(body: => Unit): Unit = synchronized {
+      body
+      reads.foreach { rs => publish(MessageFooterState(msg, rs.values.toVector.sortBy(_.timestamp.instant.toEpochMilli))) }
+    }
+
+    private def applyChanges(rs: Map[UserId, ReadReceipt], changes: Map[UserId, Option[ReadReceipt]]) =
+      changes.foldLeft(rs) {
+        case (acc, (user, Some(r))) => acc + (user -> r)
+        case (acc, (user, None))    => acc - user
+      }
+  }
+}
+
+object FooterStateController {
+
+  val MaxConvStates = 3
+
+  case class ConvFooterState(selfUserId: UserId, isGroup: Boolean, isTeamConv: Boolean, isOffline: Boolean)
+
+  case class MessageFooterState(message: MessageData, reads: Seq[ReadReceipt])
+}
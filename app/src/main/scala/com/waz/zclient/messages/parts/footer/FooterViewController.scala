@@ -23,15 +23,16 @@ import com.waz.api.Message
 import com.waz.api.Message.Status
 import com.waz.model.{LocalInstant, MessageData, ReadReceipt}
 import com.waz.service.messages.{MessageAndLikes, MessagesService}
-import com.waz.service.{NetworkModeService, ZMessaging}
 import com.waz.threading.CancellableFuture
 import com.waz.utils._
-import com.waz.utils.events.{ClockSignal, EventContext, Signal}
+import com.waz.utils.events.{EventContext, Signal}
 import com.waz.zclient.common.controllers.global.AccentColorController
 import com.waz.zclient.conversation.ConversationController
 import com.waz.zclient.messages.MessageView.MsgBindOptions
+import com.waz.zclient.messages.parts.footer.FooterStateController.{ConvFooterState, MessageFooterState}
 import com.waz.zclient.messages.{LikesController, UsersController}
 import com.waz.zclient.utils.ContextUtils._
+import com.waz.zclient.utils.FrameTicker
 import com.waz.zclient.utils.Time.SameDayTimeStamp
 import com.waz.zclient.{Injectable, Injector, R}
 import org.threeten.bp.Instant
@@ -49,21 +50,19 @@ class FooterViewController(implicit inj: Injector, context: Context, ec: EventCo
   val signals                = inject[UsersController]
   val likesController        = inject[LikesController]
 
-  val readReceiptsStorage = inject[Signal[ZMessaging]].map(_.readReceiptsStorage)
-  val conversationController = inject[ConversationController]
-
-  private lazy val zms = inject[Signal[ZMessaging]]
+  val footerStates           = inject[FooterStateController]
 
   val opts            = Signal[MsgBindOptions]()
   val messageAndLikes = Signal[MessageAndLikes]()
   val isSelfMessage   = opts.map(_.isSelf)
+  // whether the footer is on screen - the ephemeral timer only ticks while it is
+  val shown           = Signal(false)
 
-  val message =
-    for {
-      z   <- zms
-      id  <- messageAndLikes.map(_.message.id)
-      msg <- z.messagesStorage.signal(id)
-    } yield msg
+  // keyed on the id, as the footer state follows the changes of the message itself
+  val footerState = messageAndLikes.map(_.message.id).flatMap { _ =>
+    messageAndLikes.currentValue.fold(Signal.empty[MessageFooterState])(m => footerStates.messageState(m.message))
+  }
+  val message     = footerState.map(_.message)
 
   val isLiked     = messageAndLikes.map(_.likes.nonEmpty)
   val likedBySelf = messageAndLikes.map(_.likedBySelf)
@@ -92,26 +91,22 @@ class FooterViewController(implicit inj: Injector, context: Context, ec: EventCo
   } yield
     timeAct || expiring || (selfMsg && !liked)
 
-  val ephemeralTimeout: Signal[Option[FiniteDuration]] = message.map(_.expiryTime) flatMap {
+  // the remaining time as displayed, so that the footer text is only recomputed when it actually changes
+  val ephemeralTimeout: Signal[Option[String]] = message.map(_.expiryTime) flatMap {
     case None => Signal const None
     case Some(expiry) if expiry <= LocalInstant.Now => Signal const None
     case Some(expiry) =>
-      ClockSignal(1.second) map { now =>
-        Some(now.until(expiry.instant).asScala).filterNot(_.isNegative)
+      def remaining(now: Instant) = Some(now.until(expiry.instant).asScala).filterNot(_.isNegative).map(remainingTimeString)
+      shown flatMap {
+        case true  => FrameTicker.ticks(1.second) map remaining
+        case false => Signal const remaining(Instant.now)
       }
   }
 
-  val conv = message.flatMap(signals.conv)
-
   val timestampText = for {
-    selfUserId  <- signals.selfUserId
-    convId      <- conv.map(_.id)
-    isGroup     <- conversationController.groupConversation(convId)
-    isTeamConv  <- conv.map(_.team.nonEmpty)
-    msg         <- message
-    timeout     <- ephemeralTimeout
-    reads       <- readReceiptsStorage.flatMap(_.receipts(msg.id))
-    isOffline   <- inject[NetworkModeService].isOnline.map(!_)
+    MessageFooterState(msg, reads)                              <- footerState
+    ConvFooterState(selfUserId, isGroup, isTeamConv, isOffline) <- footerStates.convState(msg.convId)
+    timeout                                                     <- ephemeralTimeout
   } yield {
     val timestamp = SameDayTimeStamp(msg.time.instant).string
     val editedTimestamp = SameDayTimeStamp(msg.editTime.instant).string
@@ -167,7 +162,10 @@ class FooterViewController(implicit inj: Injector, context: Context, ec: EventCo
       })
   }
 
-  private def ephemeralTimeoutString(timestamp: String, remaining: FiniteDuration, isGroup: Boolean, reads: Seq[ReadReceipt], isTeamConv: Boolean) = {
+  private def ephemeralTimeoutString(timestamp: String, remainingTimeStamp: String, isGroup: Boolean, reads: Seq[ReadReceipt], isTeamConv: Boolean) =
+    s"${timestampAndReads(timestamp, isGroup, reads, isTeamConv).getOrElse(timestamp)} \u30FB $remainingTimeStamp"
+
+  private def remainingTimeString(remaining: FiniteDuration) = {
 
     def unitString(resId: Int, quantity: Long) =
       getQuantityString(resId, quantity.toInt, quantity.toString)
@@ -182,14 +180,11 @@ class FooterViewController(implicit inj: Injector, context: Context, ec: EventCo
     lazy val weeksNotZero    = Option((remaining.toDays % 365) / 7).filter(_ > 0).map(unitString(R.plurals.unit_weeks,  _))
     lazy val daysNotZero     = Option(remaining.toDays % 7).filter(_ > 0).map(unitString(R.plurals.unit_days,  _))
 
-    val remainingTimeStamp =
-      if (remaining > 365.days)      weeksNotZero.fold(getString(R.string.ephemeral_message_footer_single_unit, years))(getString(R.string.ephemeral_message_footer_multiple_units, years, _))
-      else if (remaining > 7.days)   daysNotZero.fold(getString(R.string.ephemeral_message_footer_single_unit, weeks))(getString(R.string.ephemeral_message_footer_multiple_units, weeks, _))
-      else if (remaining > 1.day)    getString(R.string.ephemeral_message_footer_multiple_units, days, hours)
-      else if (remaining > 1.hour)   getString(R.string.ephemeral_message_footer_single_unit, hours)
-      else if (remaining > 1.minute) getString(R.string.ephemeral_message_footer_single_unit, minutes)
-      else                           getString(R.string.ephemeral_message_footer_single_unit, seconds)
-
-    s"${timestampAndReads(timestamp, isGroup, reads, isTeamConv).getOrElse(timestamp)} \u30FB $remainingTimeStamp"
+    if (remaining > 365.days)      weeksNotZero.fold(getString(R.string.ephemeral_message_footer_single_unit, years))(getString(R.string.ephemeral_message_footer_multiple_units, years, _))
+    else if (remaining > 7.days)   daysNotZero.fold(getString(R.string.ephemeral_message_footer_single_unit, weeks))(getString(R.string.ephemeral_message_footer_multiple_units, weeks, _))
+    else if (remaining > 1.day)    getString(R.string.ephemeral_message_footer_multiple_units, days, hours)
+    else if (remaining > 1.hour)   getString(R.string.ephemeral_message_footer_single_unit, hours)
+    else if (remaining > 1.minute) getString(R.string.ephemeral_message_footer_single_unit, minutes)
+    else                           getString(R.string.ephemeral_message_footer_single_unit, seconds)
   }
 }
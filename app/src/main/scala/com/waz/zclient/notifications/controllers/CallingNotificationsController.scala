@@ -20,34 +20,31 @@ package com.waz.zclient.notifications.controllers
 
 import android.app.{NotificationManager, PendingIntent}
 import android.content
-import android.graphics.{Bitmap, Color}
+import android.graphics.Bitmap
 import android.os.Build
 import android.support.v4.app.NotificationCompat
 import com.waz.ZLog.ImplicitTag._
 import com.waz.ZLog._
-import com.waz.bitmap.BitmapUtils
 import com.waz.content.UserPreferences
 import com.waz.model.{ConvId, LocalInstant, Name, UserId}
-import com.waz.service.assets.AssetService.BitmapResult.BitmapLoaded
 import com.waz.service.call.CallInfo
 import com.waz.service.call.CallInfo.CallState._
 import com.waz.service.{AccountManager, AccountsService, GlobalModule, ZMessaging}
 import com.waz.services.calling.CallWakeService._
 import com.waz.services.calling.CallingNotificationsService
 import com.waz.threading.Threading.Implicits.Background
-import com.waz.ui.MemoryImageCache.BitmapRequest.Regular
 import com.waz.utils.events.{EventContext, Signal}
 import com.waz.utils.wrappers.{Context, Intent}
 import com.waz.utils._
 import com.waz.zclient.Intents.{CallIntent, OpenCallingScreen}
 import com.waz.zclient._
 import com.waz.zclient.calling.controllers.CallController
-import com.waz.zclient.common.views.ImageController
 import com.waz.zclient.notifications.controllers.NotificationManagerWrapper.{IncomingCallNotificationsChannelId, OngoingNotificationsChannelId}
 import com.waz.zclient.utils.ContextUtils.{getString, _}
 import com.waz.zclient.utils.RingtoneUtils
 
 import scala.concurrent.Future
+import scala.concurrent.duration._
 import scala.util.Try
 import scala.util.control.NonFatal
 
@@ -59,6 +56,11 @@ class CallingNotificationsController(implicit cxt: WireContext, eventContext: Ev
 
   val notificationManager = inject[NotificationManager]
 
+  private val avatars = inject[NotificationAvatarCache]
+
+  // the call notifications currently shown, to only re-post the ones whose content changed
+  private var posted = Map.empty[Int, CallNotification]
+
   val callCtrler = inject[CallController]
 
   import callCtrler._
@@ -130,7 +132,8 @@ class CallingNotificationsController(implicit cxt: WireContext, eventContext: Ev
       for {
         pref      <- currentNotificationsPref.head
         activeIds <- pref.apply()
-        _         <-  pref := Set.empty[Int]
+        // the ones still shown aren't re-posted, so they stay in the set
+        _         <-  pref := activeIds intersect notsIds
       } yield activeIds -- notsIds
 
     toCancel.foreach(_.foreach(notificationManager.cancel(CallNotificationTag, _)))
@@ -140,7 +143,9 @@ class CallingNotificationsController(implicit cxt: WireContext, eventContext: Ev
     verbose(s"${nots.size} call notifications")
 
     cancelNots(nots)
-    nots.foreach { not =>
+    posted = posted.filterKeys(nots.map(_.id).toSet).toMap
+    nots.filterNot(not => posted.get(not.id).contains(not)).foreach { not =>
+      posted += not.id -> not
 
       val builder = androidNotificationBuilder(not)
 
@@ -164,14 +169,11 @@ class CallingNotificationsController(implicit cxt: WireContext, eventContext: Ev
     }
   }
 
+  // the notification is shown without the picture until it's loaded - and downloaded if needed, as for the call screen
   private def getBitmapSignal(z: ZMessaging, caller: UserId) = for {
       Some(id) <- z.usersStorage.optSignal(caller).map(_.flatMap(_.picture))
-      bitmap   <- inject[ImageController].imageSignal(z, id, Regular(callImageSizePx))
-    } yield
-      bitmap match {
-        case BitmapLoaded(bmp, _) => Option(BitmapUtils.createRoundBitmap(bmp, callImageSizePx, 0, Color.TRANSPARENT))
-        case _ => None
-      }
+      bitmap   <- Signal.future(avatars.avatar(z.selfUserId, caller, id, callImageSizePx, CallImageTimeout, forceDownload = true)).orElse(Signal.const(Option.empty[Bitmap]))
+    } yield bitmap
 }
 
 object CallingNotificationsController {
@@ -197,6 +199,7 @@ object CallingNotificationsController {
   val CallNotificationTag = "call_notification"
 
   val CallImageSizeDp = 64
+  val CallImageTimeout = 10.seconds
 
   def androidNotificationBuilder(not: CallNotification)(implicit cxt: content.Context): NotificationCompat.Builder = {
     val title = if (not.isGroup) not.convName else not.caller
@@ -29,14 +29,11 @@ import com.waz.log.ZLog2._
 import com.waz.ZLog.ImplicitTag._
 import com.waz.api.NotificationsHandler.NotificationType
 import com.waz.api.NotificationsHandler.NotificationType._
-import com.waz.bitmap.BitmapUtils
 import com.waz.content._
 import com.waz.model._
-import com.waz.service.images.ImageLoader
 import com.waz.service.push.NotificationUiController
 import com.waz.service.{AccountsService, UiLifeCycle}
-import com.waz.threading.{CancellableFuture, Threading}
-import com.waz.ui.MemoryImageCache.BitmapRequest
+import com.waz.threading.Threading
 import com.waz.utils.events.{EventContext, Signal}
 import com.waz.utils.wrappers.Bitmap
 import com.waz.zclient.WireApplication._
@@ -50,7 +47,6 @@ import com.waz.zclient.utils.{ResString, RingtoneUtils}
 import com.waz.zclient.{BuildConfig, Injectable, Injector, R}
 
 import scala.concurrent.Future
-import scala.concurrent.duration._
 
 class MessageNotificationsController(bundleEnabled: Boolean = Build.VERSION.SDK_INT > Build.VERSION_CODES.M,
                                      applicationId: String = BuildConfig.APPLICATION_ID)
@@ -346,30 +342,12 @@ class MessageNotificationsController(bundleEnabled: Boolean = Build.VERSION.SDK_
     else {
       inject[AccountToUsersStorage].apply(userId).flatMap {
         case Some(st) =>
-          for {
-            //TODO if a user doesn't have a picture, should we default to some bitmap?
-            assetId <- st.getAll(nots.map(_.user).toSet).map(_.flatten.flatMap(_.picture)).map { pictures =>
-              if (pictures.size == 1) pictures.headOption else None
-            }
-            bitmap <- {
-              val imageLoader   = inject[AccountToImageLoader]
-              val assetsStorage = inject[AccountToAssetsStorage]
-
-              Future.sequence(List(imageLoader(userId), assetsStorage(userId))).flatMap {
-                case Some(imageLoader: ImageLoader) :: Some(assetsStorage: AssetsStorage) :: Nil =>
-                  for {
-                    assetData <- assetId.fold(Future.successful(Option.empty[AssetData]))(assetsStorage.get)
-                    bmp       <- assetData.fold(Future.successful(Option.empty[Bitmap])){ ad =>
-                      imageLoader.loadBitmap(ad, BitmapRequest.Single(toPx(64)), forceDownload = false).map(Option(_)).withTimeout(500.millis).recoverWith {
-                        case _ : Throwable => CancellableFuture.successful(None)
-                      }.future
-                    }
-                  } yield
-                    bmp.map { original => Bitmap.fromAndroid(BitmapUtils.createRoundBitmap(original, toPx(64), 0, Color.TRANSPARENT)) }
-                case _ => Future.successful(None)
-              }
-            }
-          } yield bitmap
+          //TODO if a user doesn't have a picture, should we default to some bitmap?
+          st.getAll(nots.map(_.user).toSet).map(_.flatten.flatMap(u => u.picture.map(u.id -> _))).flatMap {
+            case Seq((user, picture)) =>
+              inject[NotificationAvatarCache].avatar(userId, user, picture, toPx(64)).map(_.map(Bitmap.fromAndroid))
+            case _ => Future.successful(None)
+          }
         case _ => Future.successful(None)
       }
     }
@@ -0,0 +1,97 @@
+/**
+ * Wire
+ * Copyright (C) 2018 Wire Swiss GmbH
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.waz.zclient.notifications.controllers
+
+import android.graphics.{Bitmap, Color}
+import android.util.LruCache
+import com.waz.ZLog.ImplicitTag._
+import com.waz.ZLog._
+import com.waz.bitmap.BitmapUtils
+import com.waz.model.{AssetData, AssetId, UserId}
+import com.waz.service.AccountsService
+import com.waz.threading.{CancellableFuture, Threading}
+import com.waz.ui.MemoryImageCache.BitmapRequest
+import com.waz.utils.events.EventContext
+import com.waz.zclient.WireApplication.{AccountToAssetsStorage, AccountToImageLoader}
+import com.waz.zclient.notifications.controllers.NotificationAvatarCache._
+import com.waz.zclient.{Injectable, Injector}
+
+import scala.collection.JavaConverters._
+import scala.concurrent.Future
+import scala.concurrent.duration._
+
+/**
+  * The round user pictures shown as large icons of the message and call notifications. They're loaded and rounded once
+  * per (account, user, picture, size) and shared by both kinds of notifications, so rebuilding the notifications
+  * doesn't reload nor re-round them. The entries of an account are dropped once it's logged out.
+  */
+class NotificationAvatarCache(implicit inj: Injector, ec: EventContext) extends Injectable {
+  import Threading.Implicits.Background
+
+  private lazy val imageLoader   = inject[AccountToImageLoader]
+  private lazy val assetsStorage = inject[AccountToAssetsStorage]
+
+  private val avatars = new LruCache[Key, Bitmap](MaxAvatars)
+
+  inject[AccountsService].accountsWithManagers { accounts =>
+    avatars.snapshot().keySet().asScala.filterNot(k => accounts.contains(k.account)).foreach(avatars.remove)
+  }
+
+  /**
+    * The round picture of the given user, loaded within `timeout` or not at all. Only the loaded pictures are cached,
+    * so a picture which timed out (or wasn't downloaded) is loaded again the next time.
+    *
+    * @param forceDownload whether the picture should be downloaded if it isn't available locally
+    */
+  def avatar(account: UserId, user: UserId, picture: AssetId, sizePx: Int, timeout: FiniteDuration = DefaultTimeout, forceDownload: Boolean = false): Future[Option[Bitmap]] = {
+    val key = Key(account, user, picture, sizePx)
+    Option(avatars.get(key)) match {
+      case Some(bmp) => Future.successful(Some(bmp))
+      case None =>
+        load(account, picture, sizePx, timeout, forceDownload).map(_.map { original =>
+          val round = BitmapUtils.createRoundBitmap(original, sizePx, 0, Color.TRANSPARENT)
+          avatars.put(key, round)
+          round
+        })
+    }
+  }
+
+  private def load(account: UserId, picture: AssetId, sizePx: Int, timeout: FiniteDuration, forceDownload: Boolean): Future[Option[Bitmap]] =
+    for {
+      loader  <- imageLoader(account)
+      storage <- assetsStorage(account)
+      asset   <- storage.fold(Future.successful(Option.empty[AssetData]))(_.get(picture))
+      bmp     <- (loader, asset) match {
+                   case (Some(l), Some(ad)) =>
+                     l.loadBitmap(ad, BitmapRequest.Single(sizePx), forceDownload).map(Option(_)).withTimeout(timeout).recoverWith {
+                       case e: Throwable =>
+                         verbose(s"no avatar for notifications: ${e.getMessage}")
+                         CancellableFuture.successful(None)
+                     }.future
+                   case _ => Future.successful(None)
+                 }
+    } yield bmp
+}
+
+object NotificationAvatarCache {
+
+  val MaxAvatars     = 32
+  val DefaultTimeout = 500.millis
+
+  case class Key(account: UserId, user: UserId, picture: AssetId, sizePx: Int)
+}
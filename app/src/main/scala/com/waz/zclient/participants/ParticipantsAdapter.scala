@@ -19,6 +19,7 @@ package com.waz.zclient.participants
 
 import android.content.Context
 import android.graphics.Color
+import android.support.v7.util.DiffUtil
 import android.support.v7.widget.{RecyclerView, SwitchCompat}
 import android.support.v7.widget.RecyclerView.ViewHolder
 import android.text.Selection
@@ -42,15 +43,17 @@ import com.waz.zclient.ui.text.{GlyphTextView, TypefaceEditText, TypefaceTextVie
 import com.waz.zclient.utils.ContextUtils._
 import com.waz.zclient.utils.{RichView, ViewUtils}
 import com.waz.zclient.{Injectable, Injector, R}
+import org.threeten.bp.Instant
 
-import scala.concurrent.duration._
 import com.waz.content.UsersStorage
 
+import scala.concurrent.duration._
+
 class ParticipantsAdapter(userIds: Signal[Seq[UserId]],
                           maxParticipants: Option[Int] = None,
                           showPeopleOnly: Boolean = false,
                           showArrow: Boolean = true,
-                          createSubtitle: Option[(UserData) => String] = None
+                          createSubtitle: Option[Signal[UserData => String]] = None
                          )(implicit context: Context, injector: Injector, eventContext: EventContext)
   extends RecyclerView.Adapter[ViewHolder] with Injectable {
   import ParticipantsAdapter._
@@ -69,6 +72,7 @@ class ParticipantsAdapter(userIds: Signal[Seq[UserId]],
   private var convVerified        = false
   private var peopleCount         = 0
   private var botCount            = 0
+  private var subtitles           = Map.empty[UserId, String]
 
   private var convNameViewHolder = Option.empty[ConversationNameViewHolder]
 
@@ -80,14 +84,29 @@ class ParticipantsAdapter(userIds: Signal[Seq[UserId]],
   val onReadReceiptsClick        = EventStream[Unit]()
   val filter = Signal("")
 
-  lazy val users = for {
+  // members are kept sorted by name, and the index is updated incrementally when the users change
+  private var memberIndex  = MemberIndex.Empty
+  private var lastFiltered = Option.empty[(MemberIndex, String, Set[UserId])]
+
+  private lazy val members = for {
     usersStorage  <- usersStorage
     tId           <- team
     userIds       <- userIds
     users         <- usersStorage.listSignal(userIds)
-    f             <- filter
-    filteredUsers = users.filter(_.matchesFilter(f))
-  } yield filteredUsers.map(u => ParticipantData(u, u.isGuest(tId) && !u.isWireBot)).sortBy(_.userData.getDisplayName.str)
+  } yield returning(memberIndex.updated(users, tId))(memberIndex = _)
+
+  lazy val users = for {
+    index <- members
+    f     <- filter
+  } yield filtered(index, f)
+
+  private def filtered(index: MemberIndex, f: String): Vector[ParticipantData] =
+    if (f.isEmpty) index.sorted.map(_.data)
+    else {
+      // while typing, the filter only gets narrower - only the members matching the previous filter have to be checked again
+      val candidates = lastFiltered.collect { case (i, prev, matching) if (i eq index) && f.startsWith(prev) => matching }
+      returning(index.filter(f, candidates)) { res => lastFiltered = Some((index, f, res.map(_.userData.id).toSet)) }
+    }
 
   private val shouldShowGuestButton = inject[ConversationController].currentConv.map(_.accessRole.isDefined)
 
@@ -98,11 +117,13 @@ class ParticipantsAdapter(userIds: Signal[Seq[UserId]],
     convActive  <- convController.currentConv.map(_.isActive)
     guestButton <- shouldShowGuestButton
     areWeAGuest <- participantsController.isCurrentUserGuest
+    subtitle    <- createSubtitle.getOrElse(Signal.const(SingleUserRowView.defaultSubtitle(_: UserData)))
+    // the default subtitle of a guest shows the time left, so it's refreshed as long as any guest with an expiry is listed
+    expiring    = users.exists(_.userData.expiresAt.isDefined)
+    _           <- if (expiring) ClockSignal(ExpiryRefreshInterval) else Signal.const(Instant.EPOCH)
   } yield {
     val (bots, people) = users.toList.partition(_.userData.isWireBot)
-
-    peopleCount = people.size
-    botCount = bots.size
+    val peopleCount = people.size
 
     val filteredPeople = maxParticipants.filter(_ < peopleCount).fold {
       people
@@ -110,6 +131,7 @@ class ParticipantsAdapter(userIds: Signal[Seq[UserId]],
       people.take(mp - 2)
     }
 
+    val rows: List[Either[ParticipantData, Int]] =
     (if (!showPeopleOnly) List(Right(ConversationName)) else Nil) :::
     (if (convActive && tId.isDefined && !showPeopleOnly) List(Right(Notifications))
     else Nil
@@ -133,26 +155,67 @@ class ParticipantsAdapter(userIds: Signal[Seq[UserId]],
       else Nil
         ) :::
      (if (showPeopleOnly) Nil else bots.map(data => Left(data)))
+
+    // rendered here rather than when binding, so that a row whose subtitle changed is rebound
+    val subtitles = rows.collect { case Left(data) => data.userData.id -> subtitle(data.userData) }.toMap
+
+    (rows, peopleCount, bots.size, subtitles)
   }
 
-  positions.onUi { list =>
+  positions.onUi { case (list, people, bots, subs) =>
+    val (prev, prevPeople, prevBots, prevSubs) = (items, peopleCount, botCount, subtitles)
     items = list
-    notifyDataSetChanged()
+    peopleCount = people
+    botCount = bots
+    subtitles = subs
+
+    val (prevRows, rows) = (prev.toVector, list.toVector)
+    DiffUtil.calculateDiff(new DiffUtil.Callback {
+      override def getOldListSize: Int = prevRows.size
+      override def getNewListSize: Int = rows.size
+      override def areItemsTheSame(oldPos: Int, newPos: Int): Boolean = (prevRows(oldPos), rows(newPos)) match {
+        case (Left(o), Left(n)) => o.userData.id == n.userData.id
+        case (o, n)             => o == n
+      }
+      override def areContentsTheSame(oldPos: Int, newPos: Int): Boolean =
+        rowContent(prevRows, oldPos, prevPeople, prevBots, prevSubs) == rowContent(rows, newPos, people, bots, subs)
+    }).dispatchUpdatesTo(this)
+  }
+
+  // everything a row is bound with, apart from the (rarely changing) conversation and team data
+  private def rowContent(rows: Vector[Either[ParticipantData, Int]], pos: Int, people: Int, bots: Int, subs: Map[UserId, String]): Any = rows(pos) match {
+    case Left(data)               => (data, isLastUserRow(rows, pos, people), subs.get(data.userData.id))
+    case Right(PeopleSeparator)   => people
+    case Right(ServicesSeparator) => bots
+    case Right(AllParticipants)   => people
+    case other                    => other
   }
 
+  private def isLastUserRow(rows: Seq[Either[ParticipantData, Int]], pos: Int, people: Int) =
+    maxParticipants.forall(people <= _) && rows.lift(pos + 1).forall(_.isRight)
+
   private val conv = convController.currentConv
 
   (for {
     name  <- conv.map(_.displayName)
     ver   <- conv.map(_.verified == Verification.VERIFIED)
     read  <- conv.map(_.readReceiptsAllowed)
-    clock <- ClockSignal(5.seconds)
-  } yield (name, ver, read, clock)).onUi {
-    case (name, ver, read, _) =>
-      convName            = Some(name)
-      convVerified        = ver
-      readReceiptsEnabled = read
-      notifyDataSetChanged()
+  } yield (name, ver, read)).onUi {
+    case (name, ver, read) =>
+      if (!convName.contains(name) || convVerified != ver) {
+        convName     = Some(name)
+        convVerified = ver
+        notifyRowChanged(ConversationName)
+      }
+      if (readReceiptsEnabled != read) {
+        readReceiptsEnabled = read
+        notifyRowChanged(ReadReceipts)
+      }
+  }
+
+  private def notifyRowChanged(rowType: Int): Unit = items.indexOf(Right(rowType)) match {
+    case -1  =>
+    case pos => notifyItemChanged(pos)
   }
 
   team.onUi { tId =>
@@ -199,7 +262,7 @@ class ParticipantsAdapter(userIds: Signal[Seq[UserId]],
     case (Right(AllParticipants), h: ShowAllParticipantsViewHolder) =>
       h.bind(peopleCount)
     case (Left(userData), h: ParticipantRowViewHolder) =>
-      h.bind(userData, teamId, maxParticipants.forall(peopleCount <= _) && items.lift(position + 1).forall(_.isRight), createSubtitle)
+      h.bind(userData, teamId, isLastUserRow(items, position, peopleCount), subtitles.getOrElse(userData.userData.id, ""))
     case (Right(ReadReceipts), h: ReadReceiptsViewHolder) =>
       h.bind(readReceiptsEnabled)
     case (Right(ConversationName), h: ConversationNameViewHolder) =>
@@ -241,8 +304,63 @@ object ParticipantsAdapter {
   val Notifications     = 7
   val ReadReceipts      = 8
 
+  val ExpiryRefreshInterval = 1.minute
+
   case class ParticipantData(userData: UserData, isGuest: Boolean)
 
+  case class MemberEntry(data: ParticipantData, sortKey: String) {
+    def id: UserId = data.userData.id
+  }
+
+  /**
+    * The members of a conversation, sorted by display name. Updating it only re-sorts the members which actually
+    * changed, by removing them and inserting them back at their (binary searched) position.
+    */
+  class MemberIndex private (val sorted: Vector[MemberEntry], byId: Map[UserId, MemberEntry], teamId: Option[TeamId]) {
+
+    def updated(users: Seq[UserData], tId: Option[TeamId]): MemberIndex = {
+      val changed = if (tId != teamId) users else users.filterNot(u => byId.get(u.id).exists(_.data.userData == u))
+      val removed = byId.keySet -- users.map(_.id)
+
+      if (changed.isEmpty && removed.isEmpty) this
+      else {
+        val changedIds = changed.map(_.id).toSet
+        def entry(u: UserData) = MemberEntry(ParticipantData(u, u.isGuest(tId) && !u.isWireBot), u.getDisplayName.str)
+
+        val newSorted =
+          if (changed.size > sorted.size / 4) users.map(u => byId.get(u.id).filterNot(_ => changedIds(u.id)).getOrElse(entry(u))).toVector.sortBy(_.sortKey)
+          else changed.map(entry).foldLeft(sorted.filterNot(e => removed(e.id) || changedIds(e.id)))(MemberIndex.insert)
+
+        new MemberIndex(newSorted, newSorted.map(e => e.id -> e).toMap, tId)
+      }
+    }
+
+    /**
+      * @param candidates if defined, the members which have to be checked - the others are known not to match
+      */
+    def filter(f: String, candidates: Option[Set[UserId]]): Vector[ParticipantData] = {
+      // matching by email is exact, so the members which don't match a prefix of the filter can still match by email
+      lazy val trimmed = f.trim
+      sorted.collect {
+        case e @ MemberEntry(data, _) if candidates.forall(_.contains(e.id)) && data.userData.matchesFilter(f) => data
+        case MemberEntry(data, _) if data.userData.email.exists(_.str.equalsIgnoreCase(trimmed)) => data
+      }
+    }
+  }
+
+  object MemberIndex {
+    val Empty = new MemberIndex(Vector.empty, Map.empty, None)
+
+    private def insert(sorted: Vector[MemberEntry], e: MemberEntry): Vector[MemberEntry] = {
+      var (lo, hi) = (0, sorted.size)
+      while (lo < hi) {
+        val mid = (lo + hi) >>> 1
+        if (sorted(mid).sortKey <= e.sortKey) lo = mid + 1 else hi = mid
+      }
+      sorted.patch(lo, Seq(e), 0)
+    }
+  }
+
   case class GuestOptionsButtonViewHolder(view: View, convController: ConversationController)(implicit eventContext: EventContext) extends ViewHolder(view) {
     private implicit val ctx = view.getContext
     view.setId(R.id.guest_options)
@@ -293,12 +411,9 @@ object ParticipantsAdapter {
 
     view.onClick(userId.foreach(onClick ! _))
 
-    def bind(participant: ParticipantData, teamId: Option[TeamId], lastRow: Boolean, createSubtitle: Option[(UserData) => String]): Unit = {
+    def bind(participant: ParticipantData, teamId: Option[TeamId], lastRow: Boolean, subtitle: String): Unit = {
       userId = Some(participant.userData.id)
-      createSubtitle match {
-        case Some(f) => view.setUserData(participant.userData, teamId, f)
-        case None    => view.setUserData(participant.userData, teamId)
-      }
+      view.setUserData(participant.userData, teamId, _ => subtitle)
       view.setSeparatorVisible(!lastRow)
     }
   }
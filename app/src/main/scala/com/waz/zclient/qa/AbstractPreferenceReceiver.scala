@@ -93,6 +93,11 @@ trait AbstractPreferenceReceiver extends BroadcastReceiver {
             setResultData("")
             setResultCode(Activity.RESULT_CANCELED)
         }
+      case DUMP_STARTUP_TRACE_INTENT =>
+        val trace = context.getApplicationContext.asInstanceOf[WireApplication].startupScheduler.trace.dump()
+        verbose(trace)
+        setResultData(trace)
+        setResultCode(Activity.RESULT_OK)
       case _ =>
         setResultData("Unknown Intent!")
         setResultCode(Activity.RESULT_CANCELED)
@@ -116,6 +121,7 @@ object AbstractPreferenceReceiver {
   private val TRACKING_ID_INTENT       = packageName + ".intent.action.TRACKING_ID"
   private val FULL_CONVERSATION_INTENT = packageName + ".intent.action.FULL_CONVERSATION_INTENT"
   private val HIDE_GDPR_POPUPS         = packageName + ".intent.action.HIDE_GDPR_POPUPS"
+  private val DUMP_STARTUP_TRACE_INTENT = packageName + ".intent.action.DUMP_STARTUP_TRACE"
 
   private lazy val DeveloperAnalyticsEnabled = PrefKey[Boolean]("DEVELOPER_TRACKING_ENABLED")
 }
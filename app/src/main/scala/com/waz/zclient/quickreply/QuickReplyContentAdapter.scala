@@ -18,22 +18,24 @@
 package com.waz.zclient.quickreply
 
 import android.content.Context
+import android.support.v7.util.DiffUtil
 import android.support.v7.widget.RecyclerView
 import android.view.{LayoutInflater, View, ViewGroup}
 import android.widget.TextView
 import com.waz.ZLog.ImplicitTag._
 import com.waz.ZLog.verbose
 import com.waz.model.ConversationData.ConversationType
+import com.waz.model.MessageData.MessageDataDao
 import com.waz.model._
 import com.waz.service.{AccountsService, ZMessaging}
 import com.waz.threading.Threading
-import com.waz.utils.events.{EventContext, Signal}
-import com.waz.zclient.messages.RecyclerCursor
-import com.waz.zclient.messages.RecyclerCursor.RecyclerNotifier
+import com.waz.utils.events.{EventContext, EventStream, RefreshingSignal, Signal}
 import com.waz.zclient.ui.utils.TextViewUtils
 import com.waz.zclient.utils.{StringUtils, ViewUtils}
 import com.waz.zclient.{Injectable, Injector, R}
 
+import scala.concurrent.Future
+
 class QuickReplyContentAdapter(context: Context, accountId: UserId, convId: ConvId)(implicit inj: Injector, evc: EventContext)
 extends RecyclerView.Adapter[QuickReplyContentAdapter.ViewHolder] with Injectable { adapter =>
 
@@ -43,89 +45,98 @@ extends RecyclerView.Adapter[QuickReplyContentAdapter.ViewHolder] with Injectabl
 
   val ephemeralCount = Signal(Set.empty[MessageId])
 
-  var unreadIndex = 0
   var convType = ConversationType.Group
 
-  val cursor = for {
-    zs <- zms
-    convType <- zs.convsStorage.signal(convId).map(_.convType)
-  } yield (new RecyclerCursor(convId, zs, notifier), convType)
-
-  private var messages = Option.empty[RecyclerCursor]
-
-  cursor.on(Threading.Ui) { case (c, tpe) =>
-    if (!messages.contains(c)) {
-      verbose(s"cursor changed: ${c.count}")
-      unreadIndex = c.lastReadIndex + 1
-      messages.foreach(_.close())
-      messages = Some(c)
+  private val conv = zms.flatMap(_.convsStorage.signal(convId))
+
+  // only the unread tail of the conversation is loaded, reloaded whenever the messages of the conversation change
+  private val unreadMessages = for {
+    z        <- zms
+    lastRead <- conv.map(_.lastRead)
+    msgs     <- RefreshingSignal(loadUnread(z, lastRead), changeEvents(z))
+  } yield msgs
+
+  private val senderNames = for {
+    z     <- zms
+    ids   <- unreadMessages.map(_.map(_.userId).distinct)
+    users <- z.usersStorage.listSignal(ids)
+  } yield users.map(u => u.id -> u.displayName).toMap
+
+  private val items = for {
+    tpe   <- conv.map(_.convType)
+    msgs  <- unreadMessages
+    names <- senderNames
+  } yield (tpe, msgs.map(m => Item(m, names.getOrElse(m.userId, ""))))
+
+  private var messages = Vector.empty[Item]
+
+  items.on(Threading.Ui) { case (tpe, newItems) =>
+    verbose(s"unread messages changed: ${newItems.size}")
+    val prev = messages
+    messages = newItems.toVector
+    if (convType != tpe) {
       convType = tpe
-
-      notifier.notifyDataSetChanged()
-    }
+      adapter.notifyDataSetChanged()
+    } else
+      DiffUtil.calculateDiff(new DiffUtil.Callback {
+        override def getOldListSize: Int = prev.size
+        override def getNewListSize: Int = messages.size
+        override def areItemsTheSame(oldPos: Int, newPos: Int): Boolean = prev(oldPos).msg.id == messages(newPos).msg.id
+        override def areContentsTheSame(oldPos: Int, newPos: Int): Boolean = prev(oldPos) == messages(newPos)
+      }).dispatchUpdatesTo(adapter)
   }
 
-  lazy val notifier = new RecyclerNotifier {
-    override def notifyItemRangeInserted(index: Int, length: Int) =
-      notifyDataSetChanged()
-
-    override def notifyItemRangeChanged(index: Int, length: Int) =
-      notifyDataSetChanged()
-
-    override def notifyItemRangeRemoved(pos: Int, count: Int) =
-      notifyDataSetChanged()
-
-    override def notifyDataSetChanged() = {
-      messages foreach { c =>
-        unreadIndex = c.lastReadIndex + 1
-      }
-      adapter.notifyDataSetChanged()
+  private def loadUnread(z: ZMessaging, lastRead: RemoteInstant): Future[IndexedSeq[MessageData]] =
+    z.storage.db.read { implicit db =>
+      val c = MessageDataDao.msgCursor(convId)
+      try {
+        // the cursor starts with the newest message, so only the unread ones have to be read from it
+        Iterator.from(0)
+          .takeWhile(pos => pos < MaxUnreadMessages && c.moveToPosition(pos))
+          .map(_ => MessageDataDao(c))
+          .takeWhile(_.time.isAfter(lastRead))
+          .toVector
+      } finally c.close()
     }
-  }
+
+  private def changeEvents(z: ZMessaging): EventStream[_] =
+    EventStream.union(
+      z.messagesStorage.onMessagesDeletedInConversation.map(_.contains(convId)),
+      z.messagesStorage.onAdded.map(_.exists(_.convId == convId)),
+      z.messagesStorage.onChanged.map(_.exists(_.convId == convId))
+    ).filter(identity)
 
   lazy val inflater = LayoutInflater.from(context)
 
   override def onCreateViewHolder(parent: ViewGroup, viewType: Int): ViewHolder =
-    new ViewHolder(context, accountId, convType, inflater.inflate(R.layout.layout_quick_reply_content, parent, false))
+    new ViewHolder(context, convType, inflater.inflate(R.layout.layout_quick_reply_content, parent, false))
 
   override def onBindViewHolder(holder: ViewHolder, position: Int): Unit =
-    holder.message ! getItem(position).message
+    holder.bind(messages(position))
 
-  def getItem(position: Int) =
-    messages.map { ms => ms(ms.count - 1 - position) }.orNull
+  def getItem(position: Int) = messages.lift(position).map(_.msg).orNull
 
-  override def getItemCount: Int =
-    messages.fold(0) { ms => math.max(0, ms.count - unreadIndex) }
+  override def getItemCount: Int = messages.size
 }
 
 object QuickReplyContentAdapter {
 
-  class ViewHolder(context: Context, accountId: UserId, convType: ConversationType, itemView: View)(implicit inj: Injector, evc: EventContext)
-        extends RecyclerView.ViewHolder(itemView) with Injectable {
+  val MaxUnreadMessages = 50
+
+  case class Item(msg: MessageData, senderName: String)
 
-    lazy val zms = inject[AccountsService].zmsInstances.map(_.find(_.selfUserId == accountId)).collect { case Some(z) => z }
+  class ViewHolder(context: Context, convType: ConversationType, itemView: View) extends RecyclerView.ViewHolder(itemView) {
 
     val isGroupConv = convType == ConversationType.Group
 
     val content: TextView = ViewUtils.getView(itemView, R.id.ttv__quick_reply__content)
 
-    val message = Signal[MessageData]()
-
-    val userName = for {
-      zms <- inject[Signal[ZMessaging]]
-      msg <- message
-      user <- zms.usersStorage.signal(msg.userId)
-    } yield user.displayName
-
-    val contentStr = message.zip(userName) map {
-      case (msg, name) if isGroupConv =>
-        context.getString(R.string.quick_reply__message_group, name, getMessageBody(msg, name))
-      case (msg, name) =>
-        getMessageBody(msg, name)
-    }
-
-    contentStr.on(Threading.Ui) { str =>
-      content.setText(str)
+    def bind(item: Item): Unit = {
+      val Item(msg, name) = item
+      content.setText(
+        if (isGroupConv) context.getString(R.string.quick_reply__message_group, name, getMessageBody(msg, name))
+        else getMessageBody(msg, name)
+      )
       if (isGroupConv) {
         TextViewUtils.boldText(content)
       }
@@ -20,6 +20,7 @@ package com.waz.zclient.sharing
 import android.content.Context
 import android.os.Bundle
 import android.support.v4.content.ContextCompat
+import android.support.v7.util.DiffUtil
 import android.support.v7.widget.RecyclerView.ViewHolder
 import android.support.v7.widget.{LinearLayoutManager, RecyclerView}
 import android.text.format.Formatter
@@ -260,19 +261,39 @@ case class PickableConversation(conversationData: ConversationData) extends Pick
 }
 
 class ShareToMultipleAdapter(context: Context, filter: Signal[String])(implicit injector: Injector, eventContext: EventContext) extends RecyclerView.Adapter[RecyclerView.ViewHolder] with Injectable {
+  import ShareToMultipleAdapter._
+
   setHasStableIds(true)
   lazy val zms = inject[Signal[ZMessaging]]
-  lazy val conversations = for{
-    z <- zms
+
+  // sorted once, with the lowercase names precomputed, so that filtering doesn't have to do it on every keystroke
+  private lazy val index = for {
+    z             <- zms
     conversations <- Signal.future(z.convsContent.storage.list)
-    f <- filter
   } yield
     conversations
-      .filter(c => (c.convType == ConversationType.Group || c.convType == ConversationType.OneToOne) && !c.hidden && c.displayName.toLowerCase.contains(f.toLowerCase))
+      .filter(c => (c.convType == ConversationType.Group || c.convType == ConversationType.OneToOne) && !c.hidden)
       .sortWith((a, b) => a.lastEventTime.isAfter(b.lastEventTime))
-
-  conversations.on(Threading.Ui) {
-    _ => notifyDataSetChanged()
+      .map(c => IndexEntry(c, c.displayName.toLowerCase))
+      .toVector
+
+  lazy val conversations = for {
+    entries <- index
+    f       <- filter.map(_.toLowerCase)
+  } yield (if (f.isEmpty) entries else entries.filter(_.lowerCaseName.contains(f))).map(_.conv)
+
+  private var items = Vector.empty[ConversationData]
+
+  conversations.on(Threading.Ui) { convs =>
+    val prev = items
+    items = convs
+    DiffUtil.calculateDiff(new DiffUtil.Callback {
+      override def getOldListSize: Int = prev.size
+      override def getNewListSize: Int = convs.size
+      override def areItemsTheSame(oldPos: Int, newPos: Int): Boolean = prev(oldPos).id == convs(newPos).id
+      // the rows observe their conversations themselves
+      override def areContentsTheSame(oldPos: Int, newPos: Int): Boolean = true
+    }).dispatchUpdatesTo(this)
   }
 
   val selectedConversations: SourceSignal[Seq[ConvId]] = Signal(Seq.empty)
@@ -282,7 +303,10 @@ class ShareToMultipleAdapter(context: Context, filter: Signal[String])(implicit
   conversationSelectEvent.onUi {
     case (conv, add) =>
       selectedConversations.mutate(convs => if (add) convs :+ conv else convs.filterNot(_ == conv))
-      notifyDataSetChanged()
+      items.indexWhere(_.id == conv) match {
+        case -1  =>
+        case pos => notifyItemChanged(pos)
+      }
   }
 
   private val checkBoxListener = new CompoundButton.OnCheckedChangeListener {
@@ -294,9 +318,9 @@ class ShareToMultipleAdapter(context: Context, filter: Signal[String])(implicit
     }
   }
 
-  def getItem(position: Int): Option[ConversationData] = conversations.currentValue.map(_(position))
+  def getItem(position: Int): Option[ConversationData] = items.lift(position)
 
-  override def getItemCount: Int = conversations.currentValue.fold(0)(_.size)
+  override def getItemCount: Int = items.size
 
   override def onBindViewHolder(holder: ViewHolder, position: Int): Unit = {
     getItem(position) match {
@@ -314,16 +338,20 @@ class ShareToMultipleAdapter(context: Context, filter: Signal[String])(implicit
   override def getItemViewType(position: Int): Int = 1
 }
 
+object ShareToMultipleAdapter {
+  case class IndexEntry(conv: ConversationData, lowerCaseName: String)
+}
+
 case class SelectableConversationRowViewHolder(view: SelectableConversationRow)(implicit eventContext: EventContext, injector: Injector) extends RecyclerView.ViewHolder(view) with Injectable{
   lazy val zms = inject[Signal[ZMessaging]]
 
   val conversationId = Signal[ConvId]()
 
+  // observes only its own conversation, not the whole conversations storage
   val convSignal = for {
-    z <- zms
-    cid <- conversationId
-    conversations <- z.convsStorage.contents
-    conversation <- Signal(conversations.get(cid))
+    z            <- zms
+    cid          <- conversationId
+    conversation <- z.convsStorage.optSignal(cid)
   } yield conversation
 
   convSignal.on(Threading.Ui){
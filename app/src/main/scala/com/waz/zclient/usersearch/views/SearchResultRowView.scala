@@ -23,10 +23,9 @@ import android.view.{View, ViewGroup}
 import android.widget.LinearLayout
 import com.waz.ZLog._
 import com.waz.api.ContentSearchQuery
-import com.waz.service.ZMessaging
 import com.waz.threading.Threading
 import com.waz.utils.events.Signal
-import com.waz.zclient.collection.controllers.{CollectionController, CollectionUtils}
+import com.waz.zclient.collection.controllers.CollectionController
 import com.waz.zclient.common.controllers.global.AccentColorController
 import com.waz.zclient.common.views.ChatheadView
 import com.waz.zclient.messages.MessageBottomSheetDialog.MessageAction
@@ -56,7 +55,6 @@ class TextSearchResultRowView(context: Context, attrs: AttributeSet, style: Int)
   setLayoutParams(new ViewGroup.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, getResources.getDimensionPixelSize(R.dimen.search__result__height)))
   setOrientation(LinearLayout.HORIZONTAL)
 
-  val zms = inject[Signal[ZMessaging]]
   val accentColorController = inject[AccentColorController]
   val usersController = inject[UsersController]
   val messageActionsController = inject[MessageActionsController]
@@ -71,20 +69,19 @@ class TextSearchResultRowView(context: Context, attrs: AttributeSet, style: Int)
     m <- message
     q <- searchedQuery if q.toString().nonEmpty
     color <- accentColorController.accentColor
-    nContent <- zms.flatMap(z => Signal.future(z.messagesIndexStorage.getNormalizedContentForMessage(m.id)))
-  } yield (m, q, color, nContent)
+    highlighted <- Signal.future(collectionController.highlightedSearchResult(m, q, ColorUtils.injectAlpha(0.5f, color.color), StartEllipsisThreshold))
+  } yield (m, highlighted)
 
   contentSignal.on(Threading.Ui){
-    case (msg, query, color, Some(normalizedContent)) =>
-      val spannableString = CollectionUtils.getHighlightedSpannableString(msg.contentString, normalizedContent, query.elements, ColorUtils.injectAlpha(0.5f, color.color), StartEllipsisThreshold)
-      contentTextView.setText(spannableString._1)
-      resultsCount.setText(s"${spannableString._2}")
-      if (spannableString._2 <= 1) {
+    case (_, Some((spannableString, count))) =>
+      contentTextView.setText(spannableString)
+      resultsCount.setText(s"$count")
+      if (count <= 1) {
         resultsCount.setVisibility(View.INVISIBLE)
       } else {
         resultsCount.setVisibility(View.VISIBLE)
       }
-    case (msg, query, color, None) =>
+    case (msg, None) =>
       contentTextView.setText(msg.contentString)
       resultsCount.setVisibility(View.INVISIBLE)
     case _ =>
@@ -0,0 +1,75 @@
+/**
+ * Wire
+ * Copyright (C) 2018 Wire Swiss GmbH
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.waz.zclient.utils
+
+import android.os.{Handler, Looper}
+import android.view.Choreographer
+import com.waz.utils.events.{Signal, SourceSignal}
+import org.threeten.bp.Instant
+
+import scala.concurrent.duration.FiniteDuration
+
+/**
+  * A clock shared by all the views which animate with time (e.g. the ephemeral message timers). It publishes the
+  * current time once per frame, aligned with the display refresh, and only as long as anyone is subscribed - so there
+  * is a single frame callback no matter how many views are animating, and none at all when nothing is on screen.
+  *
+  * Subscribers should derive only what they display from it (see `ticks`), so that they're only notified when that
+  * actually changes.
+  */
+object FrameTicker extends SourceSignal[Instant](Some(Instant.now)) with Choreographer.FrameCallback {
+
+  private lazy val handler = new Handler(Looper.getMainLooper)
+
+  @volatile private var active = false
+
+  private val start = new Runnable {
+    override def run(): Unit = if (active) {
+      Choreographer.getInstance.removeFrameCallback(FrameTicker)
+      Choreographer.getInstance.postFrameCallback(FrameTicker)
+    }
+  }
+
+  private val stop = new Runnable {
+    override def run(): Unit = if (!active) Choreographer.getInstance.removeFrameCallback(FrameTicker)
+  }
+
+  override protected def onWire(): Unit = {
+    active = true
+    this ! Instant.now
+    handler.post(start)
+  }
+
+  override protected def onUnwire(): Unit = {
+    active = false
+    handler.post(stop)
+  }
+
+  override def doFrame(frameTimeNanos: Long): Unit = if (active) {
+    this ! Instant.now
+    Choreographer.getInstance.postFrameCallback(this)
+  }
+
+  /**
+    * The current time, truncated to the given interval - i.e. changing only once per interval.
+    */
+  def ticks(interval: FiniteDuration): Signal[Instant] = {
+    val millis = interval.toMillis max 1
+    map(now => Instant.ofEpochMilli(now.toEpochMilli / millis * millis))
+  }
+}
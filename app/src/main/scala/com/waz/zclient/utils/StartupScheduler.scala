@@ -0,0 +1,160 @@
+/**
+ * Wire
+ * Copyright (C) 2018 Wire Swiss GmbH
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.waz.zclient.utils
+
+import android.app.Application.ActivityLifecycleCallbacks
+import android.app.{Activity, Application}
+import android.os.{Bundle, Handler, Looper, SystemClock}
+import com.waz.ZLog.ImplicitTag._
+import com.waz.ZLog._
+import com.waz.threading.Threading
+import com.waz.zclient.utils.StartupScheduler._
+
+import scala.concurrent.Future
+import scala.concurrent.duration._
+
+/**
+  * Runs the initialisation tasks of the application according to how soon they are needed:
+  *  - `Critical` tasks run immediately, on the calling thread
+  *  - `FirstFrame` tasks run on the UI thread, right after the first activity has drawn its first frame
+  *  - `Idle` tasks run on a background thread, after the first frame as well
+  *
+  * If the app was started without any activity (e.g. by a push notification), the deferred tasks run after
+  * `FirstFrameTimeout` anyway. The time spent in each task is recorded in the `trace`, which is logged as a whole
+  * once the deferred tasks have completed if `dumpTrace` is set.
+  */
+class StartupScheduler(app: Application, dumpTrace: Boolean = false) {
+
+  val trace = new StartupTrace
+
+  private val handler = new Handler(Looper.getMainLooper)
+
+  private var firstFrameDrawn = false
+  private var firstFrameTasks = Vector.empty[(String, () => Unit)]
+  private var idleTasks = Vector.empty[(String, () => Unit)]
+
+  private val lifecycleCallbacks = new ActivityLifecycleCallbacks {
+    override def onActivityResumed(activity: Activity): Unit =
+      // a runnable posted to the decor view runs after its next traversal, i.e. once the first frame is drawn
+      activity.getWindow.getDecorView.post(new Runnable {
+        override def run(): Unit = onFirstFrame("first frame")
+      })
+
+    override def onActivityCreated(activity: Activity, savedInstanceState: Bundle): Unit = ()
+    override def onActivityStarted(activity: Activity): Unit = ()
+    override def onActivityPaused(activity: Activity): Unit = ()
+    override def onActivityStopped(activity: Activity): Unit = ()
+    override def onActivitySaveInstanceState(activity: Activity, outState: Bundle): Unit = ()
+    override def onActivityDestroyed(activity: Activity): Unit = ()
+  }
+
+  app.registerActivityLifecycleCallbacks(lifecycleCallbacks)
+
+  private val timeout = new Runnable {
+    override def run(): Unit = onFirstFrame("timeout")
+  }
+
+  handler.postDelayed(timeout, FirstFrameTimeout.toMillis)
+
+  def schedule(name: String, priority: Priority)(task: => Unit): Unit = priority match {
+    case Critical   => trace.record(name, priority)(task)
+    case FirstFrame => runOnUi(if (firstFrameDrawn) runNow(name, priority, () => task) else firstFrameTasks :+= ((name, () => task)))
+    case Idle       => runOnUi(if (firstFrameDrawn) runIdle(name, () => task) else idleTasks :+= ((name, () => task)))
+  }
+
+  private def onFirstFrame(reason: String): Unit = if (!firstFrameDrawn) {
+    firstFrameDrawn = true
+    trace.mark(s"deferred tasks released ($reason)")
+    app.unregisterActivityLifecycleCallbacks(lifecycleCallbacks)
+    handler.removeCallbacks(timeout)
+
+    val (uiTasks, bgTasks) = (firstFrameTasks, idleTasks)
+    firstFrameTasks = Vector.empty
+    idleTasks = Vector.empty
+
+    uiTasks.foreach { case (name, task) => runNow(name, FirstFrame, task) }
+    val idle = bgTasks.map { case (name, task) => runIdle(name, task) }
+
+    // posted after the first frame tasks, so that it runs once they're all done
+    if (dumpTrace) handler.post(new Runnable {
+      override def run(): Unit = {
+        import Threading.Implicits.Background
+        // a failed task is in the trace as well, so wait for the others rather than failing fast
+        Future.sequence(idle.map(_.recover { case _ => () })).foreach(_ => verbose(trace.dump()))
+      }
+    })
+  }
+
+  // post each task separately, so that input events can be handled in between
+  private def runNow(name: String, priority: Priority, task: () => Unit): Unit =
+    handler.post(new Runnable {
+      override def run(): Unit = trace.record(name, priority)(task())
+    })
+
+  private def runIdle(name: String, task: () => Unit): Future[Unit] =
+    Future(trace.record(name, Idle)(task()))(Threading.Background)
+
+  private def runOnUi(body: => Unit): Unit =
+    if (Looper.myLooper() == Looper.getMainLooper) body
+    else handler.post(new Runnable {
+      override def run(): Unit = body
+    })
+}
+
+object StartupScheduler {
+
+  val FirstFrameTimeout = 5.seconds
+
+  sealed trait Priority
+  case object Critical   extends Priority
+  case object FirstFrame extends Priority
+  case object Idle       extends Priority
+
+  case class TraceEntry(name: String, phase: String, thread: String, startMs: Long, durationMs: Long)
+
+  /**
+    * Collects the init times of the startup tasks, relative to the creation of the trace (i.e. of the application).
+    */
+  class StartupTrace {
+    private val created = SystemClock.elapsedRealtime()
+    private var entries = Vector.empty[TraceEntry]
+
+    def record[A](name: String, priority: Priority)(body: => A): Unit = {
+      val start = SystemClock.elapsedRealtime()
+      try body
+      finally add(TraceEntry(name, priority.toString, Thread.currentThread().getName, start - created, SystemClock.elapsedRealtime() - start))
+    }
+
+    def mark(name: String): Unit = {
+      val now = SystemClock.elapsedRealtime()
+      add(TraceEntry(name, "Mark", Thread.currentThread().getName, now - created, 0))
+    }
+
+    def snapshot: Seq[TraceEntry] = synchronized(entries)
+
+    def dump(): String =
+      snapshot.sortBy(_.startMs).map { e =>
+        f"${e.startMs}%6d ms  ${e.durationMs}%5d ms  ${e.phase}%-10s ${e.name} [${e.thread}]"
+      }.mkString("Startup trace:\n", "\n", "")
+
+    private def add(entry: TraceEntry): Unit = {
+      synchronized(entries :+= entry)
+      verbose(s"startup: $entry")
+    }
+  }
+}
@@ -178,7 +178,7 @@ package object utils {
 
   class ContentCompoundDrawable(drawMethod: (Canvas, RectF, ResizingBehavior, Int) => Unit, color: Int) extends WireDrawable {
     setColor(color)
-    override def draw(canvas: Canvas): Unit = drawMethod(canvas, new RectF(getBounds),  ResizingBehavior.AspectFit, color)
+    override def draw(canvas: Canvas): Unit = drawIcon(canvas, drawMethod, new RectF(getBounds))
   }
 
   implicit class RichTextView(val textView: TextView) extends AnyVal {
@@ -17,11 +17,15 @@
  */
 package com.waz.zclient.core.api.scala;
 
+import android.view.Choreographer;
 import com.waz.zclient.testutils.MockObservable;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.SortedSet;
 import java.util.Stack;
 import java.util.TreeSet;
@@ -32,6 +36,7 @@ import static com.waz.zclient.core.api.scala.ModelObserver.Reason.NEW_MODEL;
 import static com.waz.zclient.core.api.scala.ModelObserverTest.FailedMessages.shouldHaveBeenCalled;
 import static com.waz.zclient.core.api.scala.ModelObserverTest.FailedMessages.updateReasonShouldHaveBeen;
 import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertTrue;
 
 @SuppressWarnings("PMD")
 public class ModelObserverTest {
@@ -174,11 +179,90 @@ public class ModelObserverTest {
         assertEquals(updateReasonShouldHaveBeen(NEW_MODEL), NEW_MODEL, observer.lastUpdateReasons.pop());
     }
 
+    @Test
+    public void setAndUpdateAdditionalModelShouldOnlyUpdateNewModel() {
+        MockObservable model1 = new MockObservable(1);
+        MockObservable model2 = new MockObservable(2);
+
+        observer.setAndUpdate(model1);
+        observer.setAndUpdate(Arrays.asList(model1, model2));
+
+        assertEquals("The observer should be listening to 2 models", 2, observer.getModels().size());
+        assertEquals(shouldHaveBeenCalled("twice"), 2, observer.callsToUpdate);
+    }
+
+    @Test
+    public void setAndUpdateSameModelsShouldNotResubscribe() {
+        MockObservable model1 = new MockObservable(1);
+        MockObservable model2 = new MockObservable(2);
+
+        observer.setAndUpdate(Arrays.asList(model1, model2));
+        observer.setAndUpdate(Arrays.asList(new MockObservable(2), new MockObservable(1)));
+
+        assertEquals("The listener should only have been added once", 1, model1.listenersAdded);
+        assertEquals("The listener should only have been added once", 1, model2.listenersAdded);
+    }
+
+    @Test
+    public void batchedUpdatesAreDeliveredOncePerFrame() {
+        BatchedTestObserver batched = new BatchedTestObserver();
+        MockObservable model1 = new MockObservable(1);
+        MockObservable model2 = new MockObservable(2);
+        MockObservable model3 = new MockObservable(3);
+
+        batched.setAndUpdate(Arrays.asList(model1, model2, model3));
+        assertTrue("No updates should be delivered before the frame", batched.batches.isEmpty());
+
+        batched.frame();
+        assertEquals("The new models should be delivered in a single batch", 1, batched.batches.size());
+        assertEquals(3, batched.batches.get(0).size());
+
+        model1.triggerInternalUpdate();
+        model2.triggerInternalUpdate();
+        model1.triggerInternalUpdate();
+        batched.frame();
+
+        assertEquals(shouldHaveBeenCalled("twice"), 2, batched.batches.size());
+        assertEquals("Only the changed models should be delivered, once each", Arrays.asList(model1, model2), batched.batches.get(1));
+        assertEquals("The per model update method shouldn't be called", 0, batched.callsToUpdate);
+    }
+
+    @Test
+    public void batchedUpdatesOfDroppedModelsAreNotDelivered() {
+        BatchedTestObserver batched = new BatchedTestObserver();
+        MockObservable model1 = new MockObservable(1);
+        MockObservable model2 = new MockObservable(2);
+
+        batched.setAndUpdate(Arrays.asList(model1, model2));
+        batched.frame();
+
+        model1.triggerInternalUpdate();
+        model2.triggerInternalUpdate();
+        batched.setAndUpdate(model2);
+        batched.frame();
+
+        assertEquals(Collections.singletonList(model2), batched.batches.get(1));
+
+        model2.triggerInternalUpdate();
+        batched.clear();
+        batched.frame();
+
+        assertEquals("Updates pending when clearing the observer shouldn't be delivered", 2, batched.batches.size());
+    }
+
     private class TestObserver extends ModelObserver<MockObservable> {
 
         public int callsToUpdate = 0;
         public Stack<Reason> lastUpdateReasons = new Stack<>();
 
+        TestObserver() {
+            super();
+        }
+
+        TestObserver(boolean batched) {
+            super(batched);
+        }
+
         @Override
         public void updated(MockObservable model, Reason reason) {
             callsToUpdate++;
@@ -193,6 +277,34 @@ public class ModelObserverTest {
             return set;
         }
     }
+    private class BatchedTestObserver extends TestObserver {
+
+        public List<List<MockObservable>> batches = new ArrayList<>();
+        private Choreographer.FrameCallback pendingFrame;
+
+        BatchedTestObserver() {
+            super(true);
+        }
+
+        @Override
+        public void updated(List<MockObservable> models) {
+            batches.add(models);
+        }
+
+        @Override
+        protected void postFrameCallback(Choreographer.FrameCallback callback) {
+            pendingFrame = callback;
+        }
+
+        void frame() {
+            if (pendingFrame != null) {
+                Choreographer.FrameCallback callback = pendingFrame;
+                pendingFrame = null;
+                callback.doFrame(0);
+            }
+        }
+    }
+
     /**
      * Commonly used failed test messages
      */
@@ -30,6 +30,8 @@ public class MockObservable implements UiObservable, Comparable<MockObservable>
 
     Set<UpdateListener> updateListeners = new HashSet<>();
 
+    public int listenersAdded = 0;
+
     public MockObservable(int id) {
         this.id = id;
     }
@@ -44,6 +46,7 @@ public class MockObservable implements UiObservable, Comparable<MockObservable>
     public void addUpdateListener(UpdateListener listener) {
         Timber.d("%s: addUpdateListener", this);
         updateListeners.add(listener);
+        listenersAdded++;
     }
 
     @Override
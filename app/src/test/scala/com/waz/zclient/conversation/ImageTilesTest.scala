@@ -0,0 +1,57 @@
+/**
+ * Wire
+ * Copyright (C) 2018 Wire Swiss GmbH
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.waz.zclient.conversation
+
+import com.waz.model.Dim2
+import com.waz.specs.AndroidFreeSpec
+import com.waz.zclient.conversation.ImageTiles._
+import org.junit.Test
+import org.scalatest.Suite
+
+class ImageTilesTest extends AndroidFreeSpec { this: Suite =>
+
+  private val image = Dim2(4000, 3000)
+
+  @Test
+  def fullResolutionWhenZoomedPastImagePixels(): Unit = {
+    assert(sampleSize(1f) == 1)
+    assert(sampleSize(0.6f) == 1)
+  }
+
+  @Test
+  def largestPowerOfTwoKeepingScreenResolution(): Unit = {
+    assert(sampleSize(0.5f) == 2)
+    assert(sampleSize(0.3f) == 2)
+    assert(sampleSize(0.1f) == 8)
+  }
+
+  @Test
+  def onlyVisibleTilesAreCovered(): Unit =
+    assert(tilesCovering(Bounds(600, 100, 1100, 400), image, 1) == Set(
+      Tile(1, 512, 0, 1024, 512),
+      Tile(1, 1024, 0, 1536, 512)
+    ))
+
+  @Test
+  def tilesAreClippedToTheImage(): Unit =
+    assert(tilesCovering(Bounds(3800, 2900, 4200, 3200), image, 2) == Set(Tile(2, 3072, 2048, 4000, 3000)))
+
+  @Test
+  def noTilesOutsideOfTheImage(): Unit =
+    assert(tilesCovering(Bounds(-500, -500, 0, 0), image, 1).isEmpty)
+}
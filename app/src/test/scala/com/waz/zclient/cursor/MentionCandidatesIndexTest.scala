@@ -0,0 +1,82 @@
+/**
+ * Wire
+ * Copyright (C) 2018 Wire Swiss GmbH
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.waz.zclient.cursor
+
+import com.waz.model.{Handle, UserData}
+import com.waz.specs.AndroidFreeSpec
+import org.junit.Test
+import org.scalatest.Suite
+
+import scala.concurrent.Await
+import scala.concurrent.duration._
+
+class MentionCandidatesIndexTest extends AndroidFreeSpec { this: Suite =>
+
+  private val annSmith  = UserData("Ann Smith")
+  private val annaBell  = UserData("Anna Bell")
+  private val bobAnnett = UserData("Bob Annett")
+  private val zoe       = UserData("Zoë Hannah").copy(handle = Some(Handle("annie")))
+  private val joanna    = UserData("Joanna")
+  private val dave      = UserData("Dave").copy(handle = Some(Handle("dannyboy")))
+  private val carl      = UserData("Carl Jones").copy(handle = Some(Handle("cj")))
+
+  private val members = Seq(carl, dave, joanna, zoe, bobAnnett, annaBell, annSmith)
+
+  private def search(index: MentionCandidatesIndex, query: String) = Await.result(index.search(query), 5.seconds)
+
+  @Test
+  def emptyQueryReturnsAllMembersSortedByName(): Unit =
+    assert(search(new MentionCandidatesIndex(members), "") == IndexedSeq(annSmith, annaBell, bobAnnett, carl, dave, joanna, zoe))
+
+  @Test
+  def resultsAreRankedByMatchThenSortedByName(): Unit = {
+    // name prefix, word prefix, handle prefix, name infix, handle infix
+    assert(search(new MentionCandidatesIndex(members), "ann") == IndexedSeq(annSmith, annaBell, bobAnnett, zoe, joanna, dave))
+  }
+
+  @Test
+  def matchingIgnoresCaseAndDiacritics(): Unit = {
+    val index = new MentionCandidatesIndex(members)
+    assert(search(index, "ZOE") == IndexedSeq(zoe))
+    assert(search(index, "Jo") == IndexedSeq(joanna, carl))
+  }
+
+  @Test
+  def growingQueryRefinesPreviousResults(): Unit = {
+    val index = new MentionCandidatesIndex(members)
+    Seq("a", "an", "ann", "anne").foreach { q =>
+      assert(search(index, q) == search(new MentionCandidatesIndex(members), q), s"for query '$q'")
+    }
+    assert(search(index, "anne") == IndexedSeq(bobAnnett))
+  }
+
+  @Test
+  def shrinkingQuerySearchesAllMembersAgain(): Unit = {
+    val index = new MentionCandidatesIndex(members)
+    search(index, "anne")
+    assert(search(index, "an") == search(new MentionCandidatesIndex(members), "an"))
+    assert(search(index, "c") == IndexedSeq(carl))
+  }
+
+  @Test
+  def handlesAreMatched(): Unit = {
+    val index = new MentionCandidatesIndex(members)
+    assert(search(index, "cj") == IndexedSeq(carl))
+    assert(search(index, "boy") == IndexedSeq(dave))
+  }
+}
@@ -0,0 +1,153 @@
+/**
+ * Wire
+ * Copyright (C) 2018 Wire Swiss GmbH
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.waz.zclient.giphy
+
+import java.util.concurrent.TimeUnit
+
+import com.waz.model.AssetData
+import com.waz.specs.AndroidFreeSpec
+import com.waz.utils.events.{EventContext, Signal}
+import com.waz.utils.returning
+import com.waz.zclient.giphy.GiphySearch.GifSource
+import com.waz.zclient.giphy.GiphySharingPreviewFragment.GifData
+import org.junit.Test
+import org.scalatest.Suite
+
+import scala.concurrent.duration._
+import scala.concurrent.{Await, Future, Promise}
+
+class GiphySearchTest extends AndroidFreeSpec { this: Suite =>
+
+  implicit val eventContext = EventContext.Global
+
+  val timeout = Duration(5, TimeUnit.SECONDS)
+
+  val trending = Seq(GifData(None, AssetData()))
+
+  /**
+    * Lets the searches through only when told to, instead of after a delay.
+    */
+  class ManualDebounce extends (String => Future[Unit]) {
+    private var due = Map.empty[String, Promise[Unit]]
+    private var requested = Map.empty[String, Promise[Unit]]
+
+    override def apply(term: String): Future[Unit] = synchronized {
+      requestedPromise(term).trySuccess(())
+      duePromise(term).future
+    }
+
+    // waits until the term reaches the debounce, so that the test fails here (and not later) if it never does
+    def letThrough(term: String): Unit = {
+      Await.result(synchronized(requestedPromise(term)).future, timeout)
+      synchronized(duePromise(term)).trySuccess(())
+    }
+
+    def letAllThrough(): Unit = synchronized(due.values.foreach(_.trySuccess(())))
+
+    private def requestedPromise(term: String) = requested.getOrElse(term, returning(Promise[Unit]())(p => requested += term -> p))
+    private def duePromise(term: String) = due.getOrElse(term, returning(Promise[Unit]())(p => due += term -> p))
+  }
+
+  class FakeGifSource extends GifSource {
+    @volatile var searches = Vector.empty[String]
+    @volatile var responses = Map.empty[String, Promise[Seq[GifData]]]
+    private val searched = Promise[String]()
+
+    override def trending(): Future[Seq[GifData]] = Future.successful(GiphySearchTest.this.trending)
+
+    override def search(term: String): Future[Seq[GifData]] = synchronized {
+      searches :+= term
+      searched.trySuccess(term)
+      responses.getOrElse(term, Promise.successful(results(term))).future
+    }
+
+    def firstSearch: Future[String] = searched.future
+
+    def respondLater(term: String): Promise[Seq[GifData]] = synchronized {
+      returning(Promise[Seq[GifData]]())(p => responses += term -> p)
+    }
+  }
+
+  val resultsByTerm = Map(
+    "cat" -> Seq(GifData(None, AssetData())),
+    "dog" -> Seq(GifData(None, AssetData()))
+  )
+
+  def results(term: String): Seq[GifData] = resultsByTerm.getOrElse(term, Nil)
+
+  def search(source: GifSource, term: Signal[String], debounce: ManualDebounce = new ManualDebounce) =
+    returningSubscribed(new GiphySearch(Signal.const(source), term, debounce).results)
+
+  // results are only computed while the signal is wired
+  def returningSubscribed(results: Signal[Seq[GifData]]) = {
+    results { _ => }
+    results
+  }
+
+  def await(results: Signal[Seq[GifData]], expected: Seq[GifData]) =
+    Await.result(results.filter(_ == expected).head, timeout)
+
+  @Test
+  def emptyTermShowsTrendingGifs(): Unit = {
+    val source = new FakeGifSource
+    await(search(source, Signal.const("")), trending)
+    assert(source.searches.isEmpty)
+  }
+
+  @Test
+  def typingIsDebounced(): Unit = {
+    val source = new FakeGifSource
+    val debounce = new ManualDebounce
+    val term = Signal("")
+    val results = search(source, term, debounce)
+    await(results, trending)
+
+    Seq("c", "ca", "cat").foreach(term ! _)
+    debounce.letThrough("cat")
+    // the superseded terms are due too late
+    debounce.letAllThrough()
+
+    await(results, this.results("cat"))
+    assert(source.searches == Vector("cat"))
+  }
+
+  @Test
+  def resultsOfSupersededSearchesAreIgnored(): Unit = {
+    val source = new FakeGifSource
+    val debounce = new ManualDebounce
+    val dogResponse = source.respondLater("dog")
+    val term = Signal("dog")
+    val results = search(source, term, debounce)
+
+    debounce.letThrough("dog")
+    assert(Await.result(source.firstSearch, timeout) == "dog")
+
+    term ! "cat"
+    debounce.letThrough("cat")
+    await(results, this.results("cat"))
+
+    @volatile var published = Vector.empty[Seq[GifData]]
+    results { published :+= _ }
+
+    // the superseded response completes before the next search is even started
+    dogResponse.success(this.results("dog"))
+    term ! ""
+    await(results, trending)
+    assert(!published.contains(this.results("dog")))
+  }
+}
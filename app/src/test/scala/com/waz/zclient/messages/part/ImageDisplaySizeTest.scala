@@ -0,0 +1,49 @@
+/**
+ * Wire
+ * Copyright (C) 2018 Wire Swiss GmbH
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.waz.zclient.messages.part
+
+import com.waz.model.Dim2
+import com.waz.specs.AndroidFreeSpec
+import com.waz.zclient.messages.parts.assets.ImageLayoutAssetPart
+import org.junit.Test
+import org.scalatest.Suite
+
+class ImageDisplaySizeTest extends AndroidFreeSpec { this: Suite =>
+
+  import ImageLayoutAssetPart.displaySize
+
+  @Test
+  def wideImageFillsWidth(): Unit =
+    assert(displaySize(1000, 1000, Dim2(2000, 1000)) == Dim2(1000, 500))
+
+  @Test
+  def smallImageIsScaledUpToWidth(): Unit =
+    assert(displaySize(1000, 1000, Dim2(100, 50)) == Dim2(1000, 500))
+
+  @Test
+  def tallImageIsScaledDownToListHeight(): Unit =
+    assert(displaySize(1000, 1000, Dim2(1000, 1600)) == Dim2(593, 950))
+
+  @Test
+  def veryTallImageKeepsFullWidth(): Unit =
+    assert(displaySize(1000, 1000, Dim2(500, 2000)) == Dim2(1000, 4000))
+
+  @Test
+  def imageFittingListHeightIsNotScaledDown(): Unit =
+    assert(displaySize(1000, 2000, Dim2(1000, 1500)) == Dim2(1000, 1500))
+}
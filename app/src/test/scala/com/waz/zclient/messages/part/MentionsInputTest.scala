@@ -19,7 +19,7 @@ package com.waz.zclient.messages.part
 
 import com.waz.model.{Mention, UserId}
 import com.waz.specs.AndroidFreeSpec
-import com.waz.zclient.cursor.MentionUtils
+import com.waz.zclient.cursor.{CursorMentionSpan, CursorText, MentionCandidatesIndex, MentionUtils}
 import com.waz.zclient.cursor.MentionUtils.Replacement
 import com.waz.zclient.messages.parts.TextPartView
 import org.junit.Test
@@ -360,4 +360,43 @@ class MentionsInputTest  extends AndroidFreeSpec { this: Suite =>
 
     assert(updated.isEmpty)
   }
+
+  @Test
+  def testMentionAfterAnotherMention(): Unit = {
+    val input = "@123 @456"
+    assert(MentionUtils.mentionQuery(input, 3).contains("123"))
+    assert(MentionUtils.mentionQuery(input, input.length).contains("456"))
+  }
+
+  @Test
+  def testNoMentionInsideWord(): Unit = {
+    val input = "abc@456"
+    assert(MentionUtils.mentionMatch(input, input.length).isEmpty)
+    assert(MentionUtils.mentionMatch("@", 0).isEmpty)
+    assert(MentionUtils.mentionQuery("@", 1).contains(""))
+  }
+
+  @Test
+  def cursorTextWithMentionSpans(): Unit = {
+    val userId1 = UserId()
+    val userId2 = UserId()
+    val p = CursorMentionSpan.PlaceholderChar
+    val display = s"hi $p and $p!"
+    val spans = Seq(
+      (CursorMentionSpan(userId2, "@bob", 0), display.lastIndexOf(p), display.lastIndexOf(p) + 1),
+      (CursorMentionSpan(userId1, "@alice", 0), display.indexOf(p), display.indexOf(p) + 1)
+    )
+
+    val cursorText = CursorText.fromSpans(display, spans)
+
+    assert(cursorText.text == "hi @alice and @bob!")
+    assert(cursorText.mentions == Seq(Mention(Some(userId1), 3, 6), Mention(Some(userId2), 14, 4)))
+    assert(CursorText.fromSpans("no mentions", Nil) == CursorText("no mentions", Nil))
+  }
+
+  @Test
+  def normalizeMentionCandidateNames(): Unit = {
+    assert(MentionCandidatesIndex.normalize("Zoë Ångström") == "zoe angstrom")
+    assert(MentionCandidatesIndex.normalize("Jean\u00A0Luc") == "jean luc")
+  }
 }
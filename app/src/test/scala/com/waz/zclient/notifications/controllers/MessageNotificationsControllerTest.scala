@@ -165,6 +165,7 @@ class MessageNotificationsControllerTest extends AndroidFreeSpec { this: Suite =
 
     bind [AccountToImageLoader]   to (_ => Future.successful(Option(imageLoader)))
     bind [AccountToAssetsStorage] to (_ => Future.successful(Option(assetsStorage)))
+    bind [NotificationAvatarCache] to new NotificationAvatarCache()
 
     // mocked controllers
     bind[AccentColorController]  to new AccentColorController()
@@ -0,0 +1,60 @@
+/**
+ * Wire
+ * Copyright (C) 2018 Wire Swiss GmbH
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.waz.zclient.benchmark
+
+/**
+  * Message texts resembling the ones of real conversations, shared by the benchmarks.
+  */
+object Fixtures {
+
+  val Short = "See you at 5 👍"
+
+  val Plain =
+    "Hey, I just pushed the new version of the onboarding flow to the staging server. Could you have a look at the " +
+    "second screen? I'm not sure about the wording there, and the button still overlaps the keyboard on small phones."
+
+  val Formatted =
+    """# Release notes
+      |
+      |The **3.25** release is ready for *testing*, please check:
+      |
+      |1. the new `markdown` rendering
+      |2. mentions in **group** conversations
+      |3. the [changelog](https://wire.com/changelog)
+      |
+      |> Please report any issues in the QA channel
+      |
+      |- login with SSO
+      |- sharing files from *other apps*
+      |
+      |```
+      |adb install -r wire-dev.apk
+      |```""".stripMargin
+
+  val Long = Seq.fill(12)(Plain).mkString("\n\n")
+
+  val Texts = Map("short" -> Short, "plain" -> Plain, "formatted" -> Formatted, "long" -> Long)
+
+  val Links = Seq(
+    "https://www.wire.com/en/",
+    "http://github.com/wireapp/wire-android/pull/1234",
+    "https://www.youtube.com/watch?v=dQw4w9WgXcQ",
+    "www.example.com/some/path/",
+    "https://medium.com/@wireapp/secure-messaging-and-the-cloud-6f5bd1d1f4b1"
+  )
+}
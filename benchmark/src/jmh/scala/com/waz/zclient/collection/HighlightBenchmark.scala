@@ -0,0 +1,54 @@
+/**
+ * Wire
+ * Copyright (C) 2018 Wire Swiss GmbH
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.waz.zclient.collection
+
+import java.util.concurrent.TimeUnit
+
+import android.text.SpannableString
+import com.waz.zclient.benchmark.Fixtures
+import com.waz.zclient.collection.controllers.CollectionUtils
+import org.openjdk.jmh.annotations._
+
+/**
+  * The highlighting of the search results in a conversation, computed for each bound result.
+  */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+class HighlightBenchmark {
+
+  @Param(Array("plain", "long"))
+  var text: String = _
+
+  @Param(Array("staging", "the server", "missing"))
+  var query: String = _
+
+  private var original: String = _
+  private var normalized: String = _
+  private var queries: Set[String] = _
+
+  @Setup
+  def setup(): Unit = {
+    original = Fixtures.Texts(text)
+    normalized = original.toLowerCase
+    queries = query.split(" ").toSet
+  }
+
+  @Benchmark
+  def highlight(): (SpannableString, Int) =
+    CollectionUtils.getHighlightedSpannableString(original, normalized, queries, 0xff2391d3, 20)
+}
@@ -0,0 +1,47 @@
+/**
+ * Wire
+ * Copyright (C) 2018 Wire Swiss GmbH
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.waz.zclient.markdown
+
+import java.util.concurrent.TimeUnit
+
+import android.text.SpannableString
+import com.waz.zclient.benchmark.Fixtures
+import org.openjdk.jmh.annotations._
+
+/**
+  * `Markdown.parse` is called for every bound text message: commonmark parsing and the `SpanRenderer` traversal.
+  */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+class MarkdownBenchmark {
+
+  @Param(Array("short", "plain", "formatted", "long"))
+  var text: String = _
+
+  private var input: String = _
+  private var style: StyleSheet = _
+
+  @Setup
+  def setup(): Unit = {
+    input = Fixtures.Texts(text)
+    style = new StyleSheet
+  }
+
+  @Benchmark
+  def parse(): SpannableString = Markdown.parse(input, style)
+}
@@ -0,0 +1,62 @@
+/**
+ * Wire
+ * Copyright (C) 2018 Wire Swiss GmbH
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.waz.zclient.messages
+
+import java.util.concurrent.TimeUnit
+
+import com.waz.content.MessagesCursor.Entry
+import com.waz.model.{MessageId, RemoteInstant}
+import com.waz.zclient.messages.IndexWindow.Change
+import org.openjdk.jmh.annotations._
+import org.threeten.bp.Instant
+
+/**
+  * `IndexWindow.diff` runs on every reload of the messages cursor, comparing the window of 100 messages around the
+  * current position before and after the change.
+  */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+class IndexWindowBenchmark {
+
+  @Param(Array("unchanged", "added", "removed", "moved"))
+  var change: String = _
+
+  private var before: IndexedSeq[Entry] = _
+  private var after: IndexedSeq[Entry] = _
+
+  @Setup
+  def setup(): Unit = {
+    before = entries(0 until IndexWindowBenchmark.WindowSize)
+    after = change match {
+      case "unchanged" => before.map(e => e.copy())
+      case "added"     => before.tail :+ entries(Seq(IndexWindowBenchmark.WindowSize)).head
+      case "removed"   => before.patch(IndexWindowBenchmark.WindowSize / 2, Nil, 1)
+      case "moved"     => entries(IndexWindowBenchmark.WindowSize until 2 * IndexWindowBenchmark.WindowSize)
+    }
+  }
+
+  @Benchmark
+  def diff(): Change = IndexWindow.diff(before, after)
+
+  private def entries(indices: Seq[Int]) =
+    indices.map(i => Entry(MessageId(s"message-$i"), RemoteInstant(Instant.ofEpochMilli(1500000000000L + i * 1000L)))).toIndexedSeq
+}
+
+object IndexWindowBenchmark {
+  val WindowSize = 100
+}
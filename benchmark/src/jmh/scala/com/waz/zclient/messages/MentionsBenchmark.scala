@@ -0,0 +1,61 @@
+/**
+ * Wire
+ * Copyright (C) 2018 Wire Swiss GmbH
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.waz.zclient.messages
+
+import java.util.concurrent.TimeUnit
+
+import com.waz.model.{Mention, UserId}
+import com.waz.zclient.benchmark.Fixtures
+import com.waz.zclient.messages.parts.TextPartView
+import com.waz.zclient.messages.parts.TextPartView.MentionHolder
+import org.openjdk.jmh.annotations._
+
+/**
+  * The mention handling `TextPartView` does around the markdown rendering of every bound message with mentions.
+  */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+class MentionsBenchmark {
+
+  @Param(Array("1", "5", "20"))
+  var mentionsCount: Int = _
+
+  private var text: String = _
+  private var mentions: Seq[Mention] = _
+  private var replaced: String = _
+  private var holders: Seq[MentionHolder] = _
+
+  @Setup
+  def setup(): Unit = {
+    val handles = (0 until mentionsCount).map(i => s"@User Name $i")
+    text = handles.map(h => s"$h ${Fixtures.Plain.take(60)}").mkString(" ")
+    mentions = handles.foldLeft((0, Seq.empty[Mention])) { case ((from, acc), h) =>
+      val start = text.indexOf(h, from)
+      (start + h.length, acc :+ Mention(Some(UserId()), start, h.length))
+    }._2
+    val (r, hs) = TextPartView.replaceMentions(text, mentions)
+    replaced = r
+    holders = hs
+  }
+
+  @Benchmark
+  def replaceMentions(): (String, Seq[MentionHolder]) = TextPartView.replaceMentions(text, mentions)
+
+  @Benchmark
+  def updateMentions(): Seq[Mention] = TextPartView.updateMentions(replaced, holders)
+}
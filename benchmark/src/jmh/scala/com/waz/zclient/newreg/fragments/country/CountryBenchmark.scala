@@ -0,0 +1,67 @@
+/**
+ * Wire
+ * Copyright (C) 2018 Wire Swiss GmbH
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.waz.zclient.newreg.fragments.country
+
+import java.util
+import java.util.Locale
+import java.util.concurrent.TimeUnit
+
+import com.google.i18n.phonenumbers.PhoneNumberUtil
+import com.waz.utils.returning
+import org.openjdk.jmh.annotations._
+import org.openjdk.jmh.infra.Blackhole
+
+import scala.collection.JavaConverters._
+
+/**
+  * The calling code lookups done while typing a phone number, over the full list of countries.
+  */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+class CountryBenchmark {
+
+  private val numbers = Array("+41791234567", "+4915112345678", "+12025550123", "+380501234567", "+8613812345678")
+
+  private var countries: util.List[Country] = _
+  private var codeToCountry: Map[String, Country] = _
+  private var codes: CountryTable.CodeTrie = _
+
+  @Setup
+  def setup(): Unit = {
+    val phoneNumberUtil = PhoneNumberUtil.getInstance
+    countries = phoneNumberUtil.getSupportedRegions.asScala.toSeq.sorted.map { region =>
+      returning(new Country) { c =>
+        c.setAbbreviation(region)
+        c.setCountryCode(phoneNumberUtil.getCountryCodeForRegion(region).toString)
+        c.setName(new Locale("en", region).getDisplayCountry(Locale.ENGLISH))
+      }
+    }.asJava
+    codeToCountry = countries.asScala.map(c => c.getCountryCode -> c).toMap
+    codes = new CountryTable.CodeTrie(codeToCountry.keySet.asJava)
+  }
+
+  @Benchmark
+  def stripCountryCode(bh: Blackhole): Unit =
+    numbers.foreach(n => bh.consume(CountryController.stripCountryCode(n, codes, false)))
+
+  @Benchmark
+  def countryCodeLength(bh: Blackhole): Unit = numbers.foreach(n => bh.consume(codes.longestPrefix(n.substring(1, 5))))
+
+  @Benchmark
+  def countryFromCode(bh: Blackhole): Unit = numbers.foreach(n => bh.consume(codeToCountry.get(n.substring(1, 3))))
+}
@@ -0,0 +1,50 @@
+/**
+ * Wire
+ * Copyright (C) 2018 Wire Swiss GmbH
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.waz.zclient.utils
+
+import java.util
+import java.util.concurrent.TimeUnit
+
+import org.openjdk.jmh.annotations._
+import org.openjdk.jmh.infra.Blackhole
+
+import scala.collection.JavaConverters._
+
+/**
+  * Filtering the emoji catalog by the emojis the device can't display, as done when opening the emoji picker.
+  */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+class EmojiBenchmark {
+
+  @Param(Array("0", "50", "500"))
+  var unsupportedCount: Int = _
+
+  private var unsupported: util.Set[String] = _
+
+  @Setup
+  def setup(): Unit = {
+    val all = Emojis.getAllEmojisSortedByCategory.asScala.flatten
+    // the unsupported ones are the ones added most recently, so take them from the end of the catalog
+    unsupported = new util.HashSet[String](all.reverse.take(unsupportedCount).asJava)
+  }
+
+  @Benchmark
+  def filter(bh: Blackhole): Unit =
+    Emojis.getAllEmojisSortedByCategory.asScala.foreach(emojis => bh.consume(Emojis.getFilteredList(emojis, unsupported)))
+}
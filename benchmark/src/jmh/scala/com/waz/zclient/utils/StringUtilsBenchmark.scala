@@ -0,0 +1,56 @@
+/**
+ * Wire
+ * Copyright (C) 2018 Wire Swiss GmbH
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.waz.zclient.utils
+
+import java.util.concurrent.TimeUnit
+
+import com.waz.zclient.benchmark.Fixtures
+import org.openjdk.jmh.annotations._
+import org.openjdk.jmh.infra.Blackhole
+
+/**
+  * The `StringUtils` helpers used while binding messages and link previews.
+  */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+class StringUtilsBenchmark {
+
+  private val links = Fixtures.Links.toArray
+  private val texts = Array(Fixtures.Short, Fixtures.Plain, "   ", "")
+
+  // the string part of `trimLinkPreviewUrls`, which is called for every link preview
+  @Benchmark
+  def trimLinks(bh: Blackhole): Unit = links.foreach { link =>
+    var str = StringUtils.stripPrefix(link, "http://")
+    str = StringUtils.stripPrefix(str, "https://")
+    str = StringUtils.stripPrefix(str, "www\\.")
+    bh.consume(StringUtils.stripSuffix(str, "/"))
+  }
+
+  @Benchmark
+  def isBlank(bh: Blackhole): Unit = texts.foreach(t => bh.consume(StringUtils.isBlank(t)))
+
+  @Benchmark
+  def capitalise(bh: Blackhole): Unit = texts.foreach(t => bh.consume(StringUtils.capitalise(t)))
+
+  @Benchmark
+  def formatTime(bh: Blackhole): Unit = {
+    bh.consume(StringUtils.formatTimeSeconds(42))
+    bh.consume(StringUtils.formatTimeSeconds(3725))
+  }
+}
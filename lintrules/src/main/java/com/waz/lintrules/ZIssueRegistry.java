@@ -20,9 +20,12 @@ package com.waz.lintrules;
 import com.android.tools.lint.client.api.IssueRegistry;
 import com.android.tools.lint.detector.api.Issue;
 import com.waz.lintrules.issues.BaseClassDetector;
+import com.waz.lintrules.issues.DrawAllocationDetector;
 import com.waz.lintrules.issues.LayoutXmlValueDetector;
 import com.waz.lintrules.issues.MathUtilsDetector;
+import com.waz.lintrules.issues.NotifyDataSetChangedDetector;
 import com.waz.lintrules.issues.ObjectAnimatorPropertyDetector;
+import com.waz.lintrules.issues.PatternCompileDetector;
 import com.waz.lintrules.issues.WrongTimberUsageDetector;
 
 import java.util.Arrays;
@@ -43,7 +46,10 @@ public class ZIssueRegistry extends IssueRegistry {
                              WrongTimberUsageDetector.ISSUE_BINARY,
                              WrongTimberUsageDetector.ISSUE_ARG_TYPES,
                              MathUtilsDetector.ISSUE_FLOAT_EQUALS,
-                             ObjectAnimatorPropertyDetector.ISSUE
+                             ObjectAnimatorPropertyDetector.ISSUE,
+                             DrawAllocationDetector.ISSUE,
+                             NotifyDataSetChangedDetector.ISSUE,
+                             PatternCompileDetector.ISSUE
                             );
     }
 }
@@ -0,0 +1,50 @@
+/**
+ * Wire
+ * Copyright (C) 2018 Wire Swiss GmbH
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.waz.lintrules.issues;
+
+import lombok.ast.ConstructorDeclaration;
+import lombok.ast.MethodDeclaration;
+import lombok.ast.Node;
+import lombok.ast.TypeDeclaration;
+
+final class AstUtils {
+
+    private AstUtils() {
+    }
+
+    /**
+     * @return the method the given node is part of, or null if it's part of a constructor, an initializer or a field
+     */
+    static MethodDeclaration enclosingMethod(Node node) {
+        Node current = node.getParent();
+        while (current != null) {
+            if (current instanceof MethodDeclaration) {
+                return (MethodDeclaration) current;
+            }
+            if (current instanceof ConstructorDeclaration || current instanceof TypeDeclaration) {
+                return null;
+            }
+            current = current.getParent();
+        }
+        return null;
+    }
+
+    static String methodName(MethodDeclaration method) {
+        return method.astMethodName().astValue();
+    }
+}
@@ -0,0 +1,118 @@
+/**
+ * Wire
+ * Copyright (C) 2018 Wire Swiss GmbH
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.waz.lintrules.issues;
+
+import com.android.tools.lint.client.api.JavaParser;
+import com.android.tools.lint.detector.api.Category;
+import com.android.tools.lint.detector.api.Detector;
+import com.android.tools.lint.detector.api.Implementation;
+import com.android.tools.lint.detector.api.Issue;
+import com.android.tools.lint.detector.api.JavaContext;
+import com.android.tools.lint.detector.api.Scope;
+import com.android.tools.lint.detector.api.Severity;
+import com.android.tools.lint.detector.api.Speed;
+import lombok.ast.AstVisitor;
+import lombok.ast.ConstructorInvocation;
+import lombok.ast.MethodDeclaration;
+import lombok.ast.MethodInvocation;
+import lombok.ast.Node;
+import lombok.ast.VariableReference;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class DrawAllocationDetector extends Detector implements Detector.JavaScanner {
+
+    public static final Issue ISSUE = Issue.create(
+        "com.waz.DrawAllocation",
+        "Graphics objects allocated while drawing",
+        "`onDraw()` and `Drawable#draw()` run for every frame, so creating rects, paints, paths, matrices or bitmaps " +
+        "there causes garbage collections while animating or scrolling. Allocate them once, e.g. as fields, and " +
+        "reset them before use.",
+        Category.PERFORMANCE,
+        6,
+        Severity.WARNING,
+        new Implementation(DrawAllocationDetector.class, Scope.JAVA_FILE_SCOPE));
+
+    private static final List<String> DRAW_METHODS = Arrays.asList("onDraw", "draw", "dispatchDraw", "onDrawForeground");
+
+    private static final List<String> GRAPHICS_CLASSES = Arrays.asList("android.graphics.Rect",
+                                                                       "android.graphics.RectF",
+                                                                       "android.graphics.Paint",
+                                                                       "android.text.TextPaint",
+                                                                       "android.graphics.Path",
+                                                                       "android.graphics.Matrix",
+                                                                       "android.graphics.Point",
+                                                                       "android.graphics.PointF",
+                                                                       "android.graphics.Canvas");
+
+    private static final List<String> BITMAP_FACTORIES = Arrays.asList("createBitmap", "createScaledBitmap");
+
+    public DrawAllocationDetector() {
+    }
+
+    @Override
+    public Speed getSpeed() {
+        return Speed.FAST;
+    }
+
+    @Override
+    public List<String> getApplicableConstructorTypes() {
+        return GRAPHICS_CLASSES;
+    }
+
+    @Override
+    public void visitConstructor(JavaContext context,
+                                 AstVisitor visitor,
+                                 ConstructorInvocation node,
+                                 JavaParser.ResolvedMethod constructor) {
+        if (isInDrawMethod(node)) {
+            context.report(ISSUE,
+                           context.getLocation(node),
+                           String.format("Avoid creating a `%s` while drawing", constructor.getContainingClass().getSimpleName()));
+        }
+    }
+
+    @Override
+    public List<String> getApplicableMethodNames() {
+        return BITMAP_FACTORIES;
+    }
+
+    @Override
+    public void visitMethod(JavaContext context, AstVisitor visitor, MethodInvocation node) {
+        if (!(node.astOperand() instanceof VariableReference)) {
+            return;
+        }
+        if (!"Bitmap".equals(((VariableReference) node.astOperand()).astIdentifier().astValue())) {
+            return;
+        }
+        if (isInDrawMethod(node)) {
+            context.report(ISSUE,
+                           context.getLocation(node),
+                           String.format("Avoid calling `Bitmap#%s()` while drawing", node.astName().astValue()));
+        }
+    }
+
+    private static boolean isInDrawMethod(Node node) {
+        MethodDeclaration method = AstUtils.enclosingMethod(node);
+        return method != null &&
+            DRAW_METHODS.contains(AstUtils.methodName(method)) &&
+            !method.astParameters().isEmpty() &&
+            method.astParameters().first().astTypeReference().getTypeName().endsWith("Canvas");
+    }
+}
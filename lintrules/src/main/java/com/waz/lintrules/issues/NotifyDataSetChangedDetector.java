@@ -0,0 +1,93 @@
+/**
+ * Wire
+ * Copyright (C) 2018 Wire Swiss GmbH
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.waz.lintrules.issues;
+
+import com.android.tools.lint.detector.api.Category;
+import com.android.tools.lint.detector.api.Detector;
+import com.android.tools.lint.detector.api.Implementation;
+import com.android.tools.lint.detector.api.Issue;
+import com.android.tools.lint.detector.api.JavaContext;
+import com.android.tools.lint.detector.api.Scope;
+import com.android.tools.lint.detector.api.Severity;
+import com.android.tools.lint.detector.api.Speed;
+import lombok.ast.AstVisitor;
+import lombok.ast.MethodDeclaration;
+import lombok.ast.MethodInvocation;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class NotifyDataSetChangedDetector extends Detector implements Detector.JavaScanner {
+
+    public static final Issue ISSUE = Issue.create(
+        "com.waz.NotifyDataSetChangedInRangeCallback",
+        "`notifyDataSetChanged()` called from a callback which knows the changed range",
+        "`notifyDataSetChanged()` rebinds every visible item and disables the item animations. Callbacks like " +
+        "`onItemRangeInserted()` or `notifyItemRangeChanged()` already know which items changed, so they should " +
+        "forward the range with the matching `notifyItem*()` method instead.",
+        Category.PERFORMANCE,
+        5,
+        Severity.WARNING,
+        new Implementation(NotifyDataSetChangedDetector.class, Scope.JAVA_FILE_SCOPE));
+
+    private static final List<String> RANGE_CALLBACKS = Arrays.asList("notifyItemChanged",
+                                                                      "notifyItemInserted",
+                                                                      "notifyItemRemoved",
+                                                                      "notifyItemMoved",
+                                                                      "notifyItemRangeChanged",
+                                                                      "notifyItemRangeInserted",
+                                                                      "notifyItemRangeRemoved",
+                                                                      "onItemRangeChanged",
+                                                                      "onItemRangeInserted",
+                                                                      "onItemRangeRemoved",
+                                                                      "onItemRangeMoved",
+                                                                      "onChanged",
+                                                                      "onInserted",
+                                                                      "onRemoved",
+                                                                      "onMoved");
+
+    public NotifyDataSetChangedDetector() {
+    }
+
+    @Override
+    public Speed getSpeed() {
+        return Speed.FAST;
+    }
+
+    @Override
+    public List<String> getApplicableMethodNames() {
+        return Collections.singletonList("notifyDataSetChanged");
+    }
+
+    @Override
+    public void visitMethod(JavaContext context, AstVisitor visitor, MethodInvocation node) {
+        if (!node.astArguments().isEmpty()) {
+            return;
+        }
+        MethodDeclaration method = AstUtils.enclosingMethod(node);
+        // the parameterless `onChanged()` of the data observers is the full change, it has no range to forward
+        if (method == null || method.astParameters().isEmpty() || !RANGE_CALLBACKS.contains(AstUtils.methodName(method))) {
+            return;
+        }
+        context.report(ISSUE,
+                       context.getLocation(node),
+                       String.format("Forward the range of `%s()` instead of calling `notifyDataSetChanged()`",
+                                     AstUtils.methodName(method)));
+    }
+}
@@ -0,0 +1,88 @@
+/**
+ * Wire
+ * Copyright (C) 2018 Wire Swiss GmbH
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.waz.lintrules.issues;
+
+import com.android.tools.lint.client.api.JavaParser;
+import com.android.tools.lint.detector.api.Category;
+import com.android.tools.lint.detector.api.Detector;
+import com.android.tools.lint.detector.api.Implementation;
+import com.android.tools.lint.detector.api.Issue;
+import com.android.tools.lint.detector.api.JavaContext;
+import com.android.tools.lint.detector.api.Scope;
+import com.android.tools.lint.detector.api.Severity;
+import com.android.tools.lint.detector.api.Speed;
+import lombok.ast.AstVisitor;
+import lombok.ast.MethodInvocation;
+import lombok.ast.VariableReference;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class PatternCompileDetector extends Detector implements Detector.JavaScanner {
+
+    public static final Issue ISSUE = Issue.create(
+        "com.waz.PatternCompileInMethod",
+        "Regular expression compiled on each call",
+        "`Pattern.compile()`, as well as `String#matches()`, `String#replaceAll()` and `String#replaceFirst()` which " +
+        "use it internally, compile the regular expression every time they are called. Compile it once into a " +
+        "`static final Pattern` field instead.",
+        Category.PERFORMANCE,
+        5,
+        Severity.WARNING,
+        new Implementation(PatternCompileDetector.class, Scope.JAVA_FILE_SCOPE));
+
+    private static final List<String> STRING_REGEX_METHODS = Arrays.asList("matches", "replaceAll", "replaceFirst");
+
+    public PatternCompileDetector() {
+    }
+
+    @Override
+    public Speed getSpeed() {
+        return Speed.FAST;
+    }
+
+    @Override
+    public List<String> getApplicableMethodNames() {
+        return Arrays.asList("compile", "matches", "replaceAll", "replaceFirst");
+    }
+
+    @Override
+    public void visitMethod(JavaContext context, AstVisitor visitor, MethodInvocation node) {
+        // fields, constructors and initializers only compile the expression once per instance or class
+        if (AstUtils.enclosingMethod(node) == null) {
+            return;
+        }
+        String name = node.astName().astValue();
+        if ("compile".equals(name)) {
+            if (node.astOperand() instanceof VariableReference &&
+                "Pattern".equals(((VariableReference) node.astOperand()).astIdentifier().astValue())) {
+                context.report(ISSUE, context.getLocation(node), "Move `Pattern.compile()` into a `static final` field");
+            }
+        } else if (STRING_REGEX_METHODS.contains(name) && isStringMethod(context, node)) {
+            context.report(ISSUE,
+                           context.getLocation(node),
+                           String.format("`String#%s()` compiles its regular expression on each call, use a precompiled `Pattern`", name));
+        }
+    }
+
+    private static boolean isStringMethod(JavaContext context, MethodInvocation node) {
+        JavaParser.ResolvedNode resolved = context.resolve(node);
+        return resolved instanceof JavaParser.ResolvedMethod &&
+            ((JavaParser.ResolvedMethod) resolved).getContainingClass().matches("java.lang.String");
+    }
+}
@@ -0,0 +1,101 @@
+/**
+ * Wire
+ * Copyright (C) 2018 Wire Swiss GmbH
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.waz.lintrules.issues;
+
+import com.android.tools.lint.checks.infrastructure.LintDetectorTest;
+import com.android.tools.lint.detector.api.Detector;
+import com.android.tools.lint.detector.api.Issue;
+import com.android.tools.lint.detector.api.Severity;
+
+import java.util.Collections;
+import java.util.List;
+
+public class DrawAllocationDetectorTest extends LintDetectorTest {
+
+    @Override
+    protected Detector getDetector() {
+        return new DrawAllocationDetector();
+    }
+
+    @Override
+    protected List<Issue> getIssues() {
+        return Collections.singletonList(DrawAllocationDetector.ISSUE);
+    }
+
+    public void testAllocationsInOnDraw() {
+        lint().files(java("" +
+                          "package test;\n" +
+                          "import android.content.Context;\n" +
+                          "import android.graphics.Bitmap;\n" +
+                          "import android.graphics.Canvas;\n" +
+                          "import android.graphics.Paint;\n" +
+                          "import android.graphics.RectF;\n" +
+                          "import android.view.View;\n" +
+                          "public class TestView extends View {\n" +
+                          "    public TestView(Context context) { super(context); }\n" +
+                          "    @Override\n" +
+                          "    protected void onDraw(Canvas canvas) {\n" +
+                          "        Paint paint = new Paint();\n" +
+                          "        canvas.drawRect(new RectF(0, 0, 10, 10), paint);\n" +
+                          "        canvas.drawBitmap(Bitmap.createBitmap(10, 10, Bitmap.Config.ARGB_8888), 0, 0, paint);\n" +
+                          "    }\n" +
+                          "}"))
+            .run()
+            .expectCount(3, Severity.WARNING);
+    }
+
+    public void testAllocationsInDrawableDraw() {
+        lint().files(java("" +
+                          "package test;\n" +
+                          "import android.graphics.Canvas;\n" +
+                          "import android.graphics.ColorFilter;\n" +
+                          "import android.graphics.Paint;\n" +
+                          "import android.graphics.PixelFormat;\n" +
+                          "import android.graphics.drawable.Drawable;\n" +
+                          "public class TestDrawable extends Drawable {\n" +
+                          "    @Override public void draw(Canvas canvas) { canvas.drawCircle(0, 0, 1, new Paint()); }\n" +
+                          "    @Override public void setAlpha(int alpha) {}\n" +
+                          "    @Override public void setColorFilter(ColorFilter cf) {}\n" +
+                          "    @Override public int getOpacity() { return PixelFormat.OPAQUE; }\n" +
+                          "}"))
+            .run()
+            .expectCount(1, Severity.WARNING);
+    }
+
+    public void testAllocationsOutsideOfDrawing() {
+        lint().files(java("" +
+                          "package test;\n" +
+                          "import android.content.Context;\n" +
+                          "import android.graphics.Canvas;\n" +
+                          "import android.graphics.Paint;\n" +
+                          "import android.graphics.RectF;\n" +
+                          "import android.view.View;\n" +
+                          "public class TestView extends View {\n" +
+                          "    private final Paint paint = new Paint();\n" +
+                          "    private final RectF rect;\n" +
+                          "    public TestView(Context context) { super(context); rect = new RectF(); }\n" +
+                          "    @Override\n" +
+                          "    protected void onDraw(Canvas canvas) {\n" +
+                          "        rect.set(0, 0, getWidth(), getHeight());\n" +
+                          "        canvas.drawRect(rect, paint);\n" +
+                          "    }\n" +
+                          "}"))
+            .run()
+            .expectClean();
+    }
+}
@@ -0,0 +1,63 @@
+/**
+ * Wire
+ * Copyright (C) 2018 Wire Swiss GmbH
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.waz.lintrules.issues;
+
+import com.android.tools.lint.checks.infrastructure.LintDetectorTest;
+import com.android.tools.lint.detector.api.Detector;
+import com.android.tools.lint.detector.api.Issue;
+import com.android.tools.lint.detector.api.Severity;
+
+import java.util.Collections;
+import java.util.List;
+
+public class NotifyDataSetChangedDetectorTest extends LintDetectorTest {
+
+    @Override
+    protected Detector getDetector() {
+        return new NotifyDataSetChangedDetector();
+    }
+
+    @Override
+    protected List<Issue> getIssues() {
+        return Collections.singletonList(NotifyDataSetChangedDetector.ISSUE);
+    }
+
+    public void testNotifyDataSetChangedInRangeCallbacks() {
+        lint().files(java("" +
+                          "package test;\n" +
+                          "public abstract class TestObserver {\n" +
+                          "    public abstract void notifyDataSetChanged();\n" +
+                          "    public void onItemRangeInserted(int positionStart, int itemCount) { notifyDataSetChanged(); }\n" +
+                          "    public void onChanged(int position, int count, Object payload) { notifyDataSetChanged(); }\n" +
+                          "}"))
+            .run()
+            .expectCount(2, Severity.WARNING);
+    }
+
+    public void testNotifyDataSetChangedWithoutRange() {
+        lint().files(java("" +
+                          "package test;\n" +
+                          "public abstract class TestObserver {\n" +
+                          "    public abstract void notifyDataSetChanged();\n" +
+                          "    public void onChanged() { notifyDataSetChanged(); }\n" +
+                          "    public void setItems(java.util.List<String> items) { notifyDataSetChanged(); }\n" +
+                          "}"))
+            .run()
+            .expectClean();
+    }
+}
@@ -0,0 +1,67 @@
+/**
+ * Wire
+ * Copyright (C) 2018 Wire Swiss GmbH
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.waz.lintrules.issues;
+
+import com.android.tools.lint.checks.infrastructure.LintDetectorTest;
+import com.android.tools.lint.detector.api.Detector;
+import com.android.tools.lint.detector.api.Issue;
+import com.android.tools.lint.detector.api.Severity;
+
+import java.util.Collections;
+import java.util.List;
+
+public class PatternCompileDetectorTest extends LintDetectorTest {
+
+    @Override
+    protected Detector getDetector() {
+        return new PatternCompileDetector();
+    }
+
+    @Override
+    protected List<Issue> getIssues() {
+        return Collections.singletonList(PatternCompileDetector.ISSUE);
+    }
+
+    public void testRegexCompiledInMethods() {
+        lint().files(java("" +
+                          "package test;\n" +
+                          "import java.util.regex.Pattern;\n" +
+                          "public class Test {\n" +
+                          "    boolean isNumber(String s) { return Pattern.compile(\"\\\\d+\").matcher(s).matches(); }\n" +
+                          "    boolean isWord(String s) { return s.matches(\"\\\\w+\"); }\n" +
+                          "    String strip(String s) { return s.replaceAll(\"\\\\s\", \"\"); }\n" +
+                          "}"))
+            .run()
+            .expectCount(3, Severity.WARNING);
+    }
+
+    public void testPrecompiledRegex() {
+        lint().files(java("" +
+                          "package test;\n" +
+                          "import java.util.regex.Pattern;\n" +
+                          "public class Test {\n" +
+                          "    private static final Pattern NUMBER = Pattern.compile(\"\\\\d+\");\n" +
+                          "    private final Pattern word;\n" +
+                          "    Test() { word = Pattern.compile(\"\\\\w+\"); }\n" +
+                          "    boolean isNumber(String s) { return NUMBER.matcher(s).matches(); }\n" +
+                          "    boolean isWord(String s) { return word.matcher(s).matches(); }\n" +
+                          "}"))
+            .run()
+            .expectClean();
+    }
+}
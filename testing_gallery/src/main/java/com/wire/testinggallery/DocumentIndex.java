@@ -0,0 +1,204 @@
+/**
+ * Wire
+ * Copyright (C) 2018 Wire Swiss GmbH
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.wire.testinggallery;
+
+import android.net.Uri;
+import android.os.FileObserver;
+import android.util.Log;
+import android.webkit.MimeTypeMap;
+
+import java.io.File;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * The documents of the testing files directory, with their type, mime type and size resolved once, and ordered by
+ * modification time per type - so that serving a request doesn't touch the file system. The directory is watched,
+ * and each change applied to the document it concerns. Only if the directory itself is deleted or moved, the index
+ * is rebuilt on the next request.
+ */
+final class DocumentIndex {
+
+    private static final String TAG = "TestingGallery";
+
+    private static final String DEFAULT_MIME_TYPE = "application/octet-stream";
+
+    private static final int CHANGED_EVENTS = FileObserver.CLOSE_WRITE | FileObserver.ATTRIB | FileObserver.MOVED_TO;
+    private static final int REMOVED_EVENTS = FileObserver.DELETE | FileObserver.MOVED_FROM;
+    private static final int DIRECTORY_EVENTS = FileObserver.DELETE_SELF | FileObserver.MOVE_SELF;
+
+    enum Type {
+        DOCUMENT, VIDEO, AUDIO, IMAGE
+    }
+
+    private static final Map<String, Type> EXTENSION_TYPES = new HashMap<String, Type>() {{
+        put("mp4", Type.VIDEO);
+        put("avi", Type.VIDEO);
+        put("wmv", Type.VIDEO);
+        put("mkv", Type.VIDEO);
+        put("mp3", Type.AUDIO);
+        put("wma", Type.AUDIO);
+        put("ac3", Type.AUDIO);
+        put("ogg", Type.AUDIO);
+        put("gif", Type.IMAGE);
+        put("bmp", Type.IMAGE);
+        put("jpg", Type.IMAGE);
+        put("jpeg", Type.IMAGE);
+        put("png", Type.IMAGE);
+    }};
+
+    // the least recently modified first, ties broken by path so that distinct documents never compare equal
+    private static final Comparator<Document> BY_LAST_MODIFIED = new Comparator<Document>() {
+        @Override
+        public int compare(Document d1, Document d2) {
+            int byTime = d1.lastModified < d2.lastModified ? -1 : (d1.lastModified == d2.lastModified ? 0 : 1);
+            return byTime != 0 ? byTime : d1.file.getPath().compareTo(d2.file.getPath());
+        }
+    };
+
+    static final class Document {
+        final File file;
+        final Uri uri;
+        final Type type;
+        final String mimeType;
+        final long size;
+        final long lastModified;
+
+        private Document(File file, Type type, String mimeType) {
+            this.file = file;
+            this.uri = Uri.fromFile(file);
+            this.type = type;
+            this.mimeType = mimeType;
+            this.size = file.length();
+            this.lastModified = file.lastModified();
+        }
+    }
+
+    private static DocumentIndex current;
+
+    private final File directory;
+    private final Map<String, Document> documentsByName = new HashMap<>();
+    private final Map<Type, TreeSet<Document>> documentsByType = new EnumMap<>(Type.class);
+    private final FileObserver observer;
+    private volatile boolean stale;
+
+    private DocumentIndex(File directory) {
+        this.directory = directory;
+        for (Type type : Type.values()) {
+            documentsByType.put(type, new TreeSet<>(BY_LAST_MODIFIED));
+        }
+        // started before listing the files, so that no change made in between is missed
+        observer = new FileObserver(directory.getPath(), CHANGED_EVENTS | REMOVED_EVENTS | DIRECTORY_EVENTS) {
+            @Override
+            public void onEvent(int event, String path) {
+                onChange(event, path);
+            }
+        };
+        observer.startWatching();
+        // a missing directory can't be watched, so it's looked up again on the next request
+        stale = !directory.isDirectory();
+
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                update(file.getName());
+            }
+        }
+        Log.i(TAG, String.format("Indexed %s documents in %s", documentsByName.size(), directory));
+    }
+
+    static synchronized DocumentIndex get(File directory) {
+        if (current == null || current.stale || !current.directory.equals(directory)) {
+            if (current != null) {
+                current.observer.stopWatching();
+            }
+            current = new DocumentIndex(directory);
+        }
+        return current;
+    }
+
+    synchronized int getDocumentCount() {
+        return documentsByName.size();
+    }
+
+    /**
+     * @return the most recently modified document of the given type, or null if there is none. Every document is of
+     * type {@link Type#DOCUMENT}, on top of its own type.
+     */
+    synchronized Document getLatest(Type type) {
+        TreeSet<Document> documents = documentsByType.get(type);
+        return documents.isEmpty() ? null : documents.last();
+    }
+
+    synchronized Document getDocument(Uri uri) {
+        if (uri == null || uri.getPath() == null) {
+            return null;
+        }
+        File file = new File(uri.getPath()).getAbsoluteFile();
+        return directory.getAbsoluteFile().equals(file.getParentFile()) ? documentsByName.get(file.getName()) : null;
+    }
+
+    private void onChange(int event, String name) {
+        if ((event & DIRECTORY_EVENTS) != 0) {
+            stale = true;
+        } else if (name != null) {
+            if ((event & REMOVED_EVENTS) != 0) {
+                remove(name);
+            } else if ((event & CHANGED_EVENTS) != 0) {
+                update(name);
+            }
+        }
+    }
+
+    /**
+     * (Re)indexes the file of the given name, or removes it from the index if it's no document (anymore).
+     */
+    private synchronized void update(String name) {
+        remove(name);
+        File file = new File(directory, name);
+        if (file.isFile()) {
+            Document document = document(file);
+            documentsByName.put(name, document);
+            documentsByType.get(Type.DOCUMENT).add(document);
+            if (document.type != Type.DOCUMENT) {
+                documentsByType.get(document.type).add(document);
+            }
+        }
+    }
+
+    private synchronized void remove(String name) {
+        Document document = documentsByName.remove(name);
+        if (document != null) {
+            documentsByType.get(Type.DOCUMENT).remove(document);
+            documentsByType.get(document.type).remove(document);
+        }
+    }
+
+    private static Document document(File file) {
+        String name = file.getName();
+        int dot = name.lastIndexOf('.');
+        String extension = dot < 0 ? "" : name.substring(dot + 1).toLowerCase(Locale.US);
+        Type type = EXTENSION_TYPES.get(extension);
+        String mimeType = MimeTypeMap.getSingleton().getMimeTypeFromExtension(extension);
+        return new Document(file, type == null ? Type.DOCUMENT : type, mimeType == null ? DEFAULT_MIME_TYPE : mimeType);
+    }
+}
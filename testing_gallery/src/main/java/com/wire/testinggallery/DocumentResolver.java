@@ -27,8 +27,6 @@ import android.provider.MediaStore;
 import android.util.Log;
 
 import java.io.File;
-import java.util.ArrayList;
-import java.util.List;
 
 @TargetApi(Build.VERSION_CODES.FROYO)
 public class DocumentResolver {
@@ -40,29 +38,6 @@ public class DocumentResolver {
     public static final File WIRE_TESTING_FILES_DIRECTORY =
         Environment.getExternalStoragePublicDirectory(WIRE_DIRECTORY);
 
-    private final static List<String> FILE_EXTENSIONS = new ArrayList<String>() {{
-        add("*");
-    }};
-    private final static List<String> VIDEO_EXTENSIONS = new ArrayList<String>() {{
-        add("mp4");
-        add("avi");
-        add("wmv");
-        add("mkv");
-    }};
-    private final static List<String> AUDIO_EXTENSIONS = new ArrayList<String>() {{
-        add("mp3");
-        add("wma");
-        add("ac3");
-        add("ogg");
-    }};
-    private final static List<String> IMAGE_EXTENSIONS = new ArrayList<String>() {{
-        add("gif");
-        add("bmp");
-        add("jpg");
-        add("jpeg");
-        add("png");
-    }};
-
     private final ContentResolver contentResolver;
 
     DocumentResolver(ContentResolver contentResolver) {
@@ -71,22 +46,22 @@ public class DocumentResolver {
 
     Uri getDocumentUri() {
         Log.i(TAG, "Received request for File");
-        return fileQuery(WIRE_TESTING_FILES_DIRECTORY, FILE_EXTENSIONS);
+        return fileQuery(WIRE_TESTING_FILES_DIRECTORY, DocumentIndex.Type.DOCUMENT);
     }
 
     Uri getVideoUri() {
         Log.i(TAG, "Received request for Video file");
-        return fileQuery(WIRE_TESTING_FILES_DIRECTORY, VIDEO_EXTENSIONS);
+        return fileQuery(WIRE_TESTING_FILES_DIRECTORY, DocumentIndex.Type.VIDEO);
     }
 
     Uri getAudioUri() {
         Log.i(TAG, "Received request for Audio file");
-        return fileQuery(WIRE_TESTING_FILES_DIRECTORY, AUDIO_EXTENSIONS);
+        return fileQuery(WIRE_TESTING_FILES_DIRECTORY, DocumentIndex.Type.AUDIO);
     }
 
     Uri getImageUri() {
         Log.i(TAG, "Received request for Image");
-        return fileQuery(WIRE_TESTING_FILES_DIRECTORY, IMAGE_EXTENSIONS);
+        return fileQuery(WIRE_TESTING_FILES_DIRECTORY, DocumentIndex.Type.IMAGE);
     }
 
     private Uri mediaQuery(Uri baseUri, String[] projection) {
@@ -110,44 +85,25 @@ public class DocumentResolver {
         return null;
     }
 
-    private Uri fileQuery(File baseDir, List<String> acceptableExtensions) {
-        File[] files = baseDir.listFiles();
-        Log.i(TAG, String.format("%s files found in %s", files.length, baseDir));
-        File lastUpdatedFile = null;
-        long theLastModifiedTime = 0;
-        if (files.length > 0) {
-            for (File file : files) {
-                if (file.isDirectory()) {
-                    continue;
-                }
-                long modifiedTime = file.lastModified();
-                if (modifiedTime > theLastModifiedTime &&
-                    fileHasAcceptableExtension(file, acceptableExtensions)) {
-
-                    theLastModifiedTime = modifiedTime;
-                    lastUpdatedFile = file;
-                }
-            }
-            if (lastUpdatedFile != null) {
-                Uri uri = Uri.fromFile(lastUpdatedFile);
-                Log.i(TAG, String.format("Returning recent file: %s", uri));
-                return uri;
-            } else {
-                Log.w(TAG, String.format("There was %s files, but none of them selected",
-                    files.length));
-                return null;
-            }
-        }
-        Log.w(TAG, "No files! Returning null!!");
-        return null;
+    /**
+     * @return the mime type of a document returned by this resolver, or null for any other uri
+     */
+    String getMimeType(Uri uri) {
+        DocumentIndex.Document document = DocumentIndex.get(WIRE_TESTING_FILES_DIRECTORY).getDocument(uri);
+        return document == null ? null : document.mimeType;
     }
 
-    private boolean fileHasAcceptableExtension(File file, List<String> acceptableExtensions) {
-        if (acceptableExtensions.contains("*")) {
-            return true;
+    private Uri fileQuery(File baseDir, DocumentIndex.Type type) {
+        DocumentIndex index = DocumentIndex.get(baseDir);
+        DocumentIndex.Document document = index.getLatest(type);
+        if (document != null) {
+            Log.i(TAG, String.format("Returning recent file: %s (%s, %s bytes)", document.uri, document.mimeType, document.size));
+            return document.uri;
+        } else if (index.getDocumentCount() > 0) {
+            Log.w(TAG, String.format("There was %s files, but none of them selected", index.getDocumentCount()));
+            return null;
         }
-        String[] fileParts = file.getName().split("\\.");
-        String fileExtension = fileParts[fileParts.length - 1].toLowerCase();
-        return acceptableExtensions.contains(fileExtension);
+        Log.w(TAG, "No files! Returning null!!");
+        return null;
     }
 }
@@ -51,8 +51,9 @@ public class MainReceiver extends BroadcastReceiver {
                 }
                 shareIntent = getTextIntent(text);
             } else {
-                Uri uri = getLatestAssetUriByCommand(applicationContext, command);
-                shareIntent = getStreamIntent(applicationContext, uri);
+                DocumentResolver resolver = new DocumentResolver(applicationContext.getContentResolver());
+                Uri uri = getLatestAssetUriByCommand(resolver, command);
+                shareIntent = getStreamIntent(applicationContext, resolver, uri);
             }
             shareIntent.setPackage(packageName);
             applicationContext.startActivity(shareIntent);
@@ -71,9 +72,10 @@ public class MainReceiver extends BroadcastReceiver {
         }
     }
 
-    private Intent getStreamIntent(Context applicationContext, Uri uri) {
+    private Intent getStreamIntent(Context applicationContext, DocumentResolver resolver, Uri uri) {
         Intent intent = getShareIntent();
-        intent.setType(applicationContext.getContentResolver().getType(uri));
+        String type = applicationContext.getContentResolver().getType(uri);
+        intent.setType(type == null ? resolver.getMimeType(uri) : type);
         intent.putExtra(Intent.EXTRA_STREAM, uri);
         return intent;
     }
@@ -92,8 +94,7 @@ public class MainReceiver extends BroadcastReceiver {
         return shareIntent;
     }
 
-    private Uri getLatestAssetUriByCommand(Context applicationContext, String command) {
-        DocumentResolver resolver = new DocumentResolver(applicationContext.getContentResolver());
+    private Uri getLatestAssetUriByCommand(DocumentResolver resolver, String command) {
         switch (command) {
             case COMMAND_SHARE_FILE:
                 return resolver.getDocumentUri();